@@ -1,6 +1,8 @@
 import functions.TabulatedFunction;
 import functions.ArrayTabulatedFunction;
 import functions.LinkedListTabulatedFunction;
+import functions.DoubleArrayTabulatedFunction;
+import functions.UnrolledLinkedListTabulatedFunction;
 import functions.FunctionPoint;
 import functions.FunctionPointIndexOutOfBoundsException;
 import functions.InappropriateFunctionPointException;
@@ -14,6 +16,12 @@ public class Main {
         System.out.println("\n=== ТЕСТИРОВАНИЕ LINKED LIST TABULATED FUNCTION ===");
         testFunction(new LinkedListTabulatedFunction(0, 4, new double[]{0, 1, 4, 9, 16}));
         
+        System.out.println("\n=== ТЕСТИРОВАНИЕ DOUBLE ARRAY TABULATED FUNCTION ===");
+        testFunction(new DoubleArrayTabulatedFunction(new double[]{0, 1, 2, 3, 4}, new double[]{0, 1, 4, 9, 16}));
+        
+        System.out.println("\n=== ТЕСТИРОВАНИЕ UNROLLED LINKED LIST TABULATED FUNCTION ===");
+        testFunction(new UnrolledLinkedListTabulatedFunction(0, 4, new double[]{0, 1, 4, 9, 16}));
+        
         System.out.println("\n=== ТЕСТИРОВАНИЕ ИСКЛЮЧЕНИЙ В КОНСТРУКТОРАХ ===");
         testConstructorExceptions();
         
@@ -0,0 +1,337 @@
+package benchmarks;
+
+import java.lang.management.ManagementFactory;
+
+import functions.ArrayTabulatedFunction;
+import functions.DoubleArrayTabulatedFunction;
+import functions.FunctionPoint;
+import functions.InappropriateFunctionPointException;
+import functions.LinkedListTabulatedFunction;
+import functions.TabulatedFunction;
+
+// Замеры производительности реализаций TabulatedFunction.
+// Для каждой операции, реализации и количества точек выполняются прогревочные и измерительные
+// итерации фиксированной длительности; печатаются пропускная способность (операций в секунду),
+// среднее время операции и объём выделенной памяти на операцию и в секунду (темп выделения
+// памяти, определяющий нагрузку на сборщик мусора).
+//
+// Запуск: java benchmarks.TabulatedFunctionBenchmark [количества точек через запятую] [реализации через запятую]
+// например: java -Xmx8g benchmarks.TabulatedFunctionBenchmark 10,1000,100000,10000000 Array,LinkedList
+// Оптимизации JIT-компилятора зависят от того, какие реализации уже вызывались в этой JVM,
+// поэтому для сравнения реализаций между собой лучше запускать каждую отдельным процессом.
+public class TabulatedFunctionBenchmark {
+    // Количества точек по умолчанию
+    private static final int[] DEFAULT_SIZES = {10, 1000, 100000, 10000000};
+
+    // Реализации по умолчанию
+    private static final String[] DEFAULT_IMPLEMENTATIONS = {"Array", "LinkedList", "DoubleArray"};
+
+    // Число и длительность итераций
+    private static final int WARMUP_ITERATIONS = 3;
+    private static final int MEASUREMENT_ITERATIONS = 5;
+    private static final long ITERATION_NANOS = 200_000_000L;
+
+    // Количество запросов в заранее подготовленных наборах аргументов и индексов
+    private static final int QUERY_COUNT = 1 << 16;
+
+    // Счётчик выделенной памяти текущего потока (null, если JVM его не поддерживает)
+    private static final com.sun.management.ThreadMXBean THREADS = allocationCounter();
+
+    // Приёмник результатов, не дающий компилятору выбросить вычисления
+    private static volatile double sink;
+
+    private static com.sun.management.ThreadMXBean allocationCounter() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+            if (threads.isThreadAllocatedMemorySupported()) {
+                threads.setThreadAllocatedMemoryEnabled(true);
+                return threads;
+            }
+        }
+        return null;
+    }
+
+    private static long allocatedBytes() {
+        return THREADS == null ? 0 : THREADS.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    // Измеряемая операция: выполняет порцию операций и возвращает их количество.
+    // Время и память учитываются только внутри порции; подготовка между порциями
+    // (например, возврат числа точек к исходному) выполняется в reset
+    private interface Operation {
+        int run() throws InappropriateFunctionPointException;
+
+        default void reset() throws InappropriateFunctionPointException {
+        }
+    }
+
+    // Результат измерения
+    private static class Result {
+        long operations;
+        long nanos;
+        long bytes;
+    }
+
+    public static void main(String[] args) throws InappropriateFunctionPointException {
+        int[] sizes = args.length > 0 ? parseSizes(args[0]) : DEFAULT_SIZES;
+        String[] implementations = args.length > 1 ? args[1].split(",") : DEFAULT_IMPLEMENTATIONS;
+
+        if (THREADS == null) {
+            System.out.println("Подсчёт выделенной памяти не поддерживается этой JVM");
+        }
+        System.out.printf("%-28s %-12s %10s %14s %12s %12s %12s%n",
+                "Операция", "Реализация", "Точек", "Опер./с", "нс/опер.", "Байт/опер.", "МБ/с");
+        for (int size : sizes) {
+            for (String implementation : implementations) {
+                benchmarkAll(implementation, size);
+            }
+        }
+    }
+
+    private static int[] parseSizes(String text) {
+        String[] parts = text.split(",");
+        int[] sizes = new int[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            sizes[i] = Integer.parseInt(parts[i].trim());
+            if (sizes[i] < 3) {
+                throw new IllegalArgumentException("Количество точек должно быть не менее трёх");
+            }
+        }
+        return sizes;
+    }
+
+    // Функция y = x^2 на сетке 0, 1, ..., size - 1
+    private static TabulatedFunction create(String implementation, double[] values) {
+        switch (implementation) {
+            case "Array":
+                return new ArrayTabulatedFunction(0, values.length - 1, values);
+            case "LinkedList":
+                return new LinkedListTabulatedFunction(0, values.length - 1, values);
+            case "DoubleArray":
+                return new DoubleArrayTabulatedFunction(0, values.length - 1, values);
+            default:
+                throw new IllegalArgumentException("Неизвестная реализация: " + implementation);
+        }
+    }
+
+    private static void benchmarkAll(String implementation, int size) throws InappropriateFunctionPointException {
+        double[] values = new double[size];
+        for (int i = 0; i < size; i++) {
+            values[i] = (double) i * i;
+        }
+        TabulatedFunction function = create(implementation, values);
+        double right = size - 1;
+
+        // Наборы аргументов: случайные, отсортированные и идущие подряд с малым шагом
+        long seed = 0x9E3779B97F4A7C15L;
+        double[] randomXs = new double[QUERY_COUNT];
+        int[] randomIndices = new int[QUERY_COUNT];
+        for (int i = 0; i < QUERY_COUNT; i++) {
+            seed = next(seed);
+            randomXs[i] = (seed >>> 11) * 0x1.0p-53 * right;
+            seed = next(seed);
+            randomIndices[i] = (int) ((seed >>> 33) % size);
+        }
+        double[] sortedXs = randomXs.clone();
+        sort(sortedXs);
+        double[] batchOut = new double[QUERY_COUNT];
+        double inOrderStep = right / QUERY_COUNT;
+
+        run("getFunctionValue(случайные)", implementation, size, new Operation() {
+            public int run() {
+                double sum = 0;
+                for (int i = 0; i < QUERY_COUNT; i++) {
+                    sum += function.getFunctionValue(randomXs[i]);
+                }
+                sink = sum;
+                return QUERY_COUNT;
+            }
+        });
+        run("getFunctionValues(сорт.)", implementation, size, new Operation() {
+            public int run() {
+                function.getFunctionValues(sortedXs, batchOut);
+                sink = batchOut[QUERY_COUNT - 1];
+                return QUERY_COUNT;
+            }
+        });
+        run("getFunctionValue(по порядку)", implementation, size, new Operation() {
+            public int run() {
+                double sum = 0;
+                double x = 0;
+                for (int i = 0; i < QUERY_COUNT; i++) {
+                    sum += function.getFunctionValue(x);
+                    x += inOrderStep;
+                }
+                sink = sum;
+                return QUERY_COUNT;
+            }
+        });
+        run("getPointX/Y(случайные)", implementation, size, new Operation() {
+            public int run() {
+                double sum = 0;
+                for (int i = 0; i < QUERY_COUNT; i++) {
+                    int index = randomIndices[i];
+                    sum += function.getPointX(index) + function.getPointY(index);
+                }
+                sink = sum;
+                return QUERY_COUNT;
+            }
+        });
+        run("getPointX/Y(подряд)", implementation, size, new Operation() {
+            public int run() {
+                double sum = 0;
+                int count = Math.min(size, QUERY_COUNT);
+                for (int i = 0; i < count; i++) {
+                    sum += function.getPointX(i) + function.getPointY(i);
+                }
+                sink = sum;
+                return count;
+            }
+        });
+
+        // Порция вставок/удалений мала относительно числа точек, чтобы оно почти не менялось
+        int batch = Math.max(1, Math.min(size / 10, 1000));
+        benchmarkUpdates("начало", implementation, size, function, batch, 0);
+        benchmarkUpdates("середина", implementation, size, function, batch, size / 2);
+        benchmarkUpdates("конец", implementation, size, function, batch, size - 1);
+
+        run("конструктор", implementation, size, new Operation() {
+            public int run() {
+                sink = create(implementation, values).getPointsCount();
+                return 1;
+            }
+        });
+    }
+
+    // Вставка и удаление порции точек рядом с точкой anchor. При замере вставок точки удаляются
+    // вне замера, при замере удалений - вне замера добавляются
+    private static void benchmarkUpdates(String position, String implementation, int size,
+                                         TabulatedFunction function, int batch, int anchor)
+            throws InappropriateFunctionPointException {
+        // Новые точки делят промежуток между anchor и соседней точкой (для конца - за последней)
+        FunctionPoint[] points = new FunctionPoint[batch];
+        for (int k = 0; k < batch; k++) {
+            double x = anchor == 0 ? -(k + 1.0) / (batch + 1) : anchor + (k + 1.0) / (batch + 1);
+            points[k] = new FunctionPoint(x, x * x);
+        }
+        // Номер первой вставленной точки и порядок удаления
+        int first = anchor == 0 ? 0 : anchor + 1;
+
+        Operation add = new Operation() {
+            public int run() throws InappropriateFunctionPointException {
+                for (int k = 0; k < batch; k++) {
+                    function.addPoint(points[k]);
+                }
+                return batch;
+            }
+
+            public void reset() {
+                for (int k = 0; k < batch; k++) {
+                    function.deletePoint(first);
+                }
+            }
+        };
+        Operation delete = new Operation() {
+            public int run() {
+                for (int k = 0; k < batch; k++) {
+                    function.deletePoint(first);
+                }
+                return batch;
+            }
+
+            public void reset() throws InappropriateFunctionPointException {
+                for (int k = 0; k < batch; k++) {
+                    function.addPoint(points[k]);
+                }
+            }
+        };
+
+        run("addPoint(" + position + ")", implementation, size, add);
+        // Замер удалений начинается с добавленной порции
+        delete.reset();
+        run("deletePoint(" + position + ")", implementation, size, delete);
+        // После замера порция снова добавлена - возврат к исходным точкам
+        add.reset();
+    }
+
+    // Прогрев и замер операции; печатается строка результата
+    private static void run(String name, String implementation, int size, Operation operation)
+            throws InappropriateFunctionPointException {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            iteration(operation);
+        }
+        Result total = new Result();
+        for (int i = 0; i < MEASUREMENT_ITERATIONS; i++) {
+            Result result = iteration(operation);
+            total.operations += result.operations;
+            total.nanos += result.nanos;
+            total.bytes += result.bytes;
+        }
+
+        double seconds = total.nanos / 1e9;
+        System.out.printf("%-28s %-12s %10d %14.0f %12.1f %12.1f %12.1f%n",
+                name, implementation, size,
+                total.operations / seconds,
+                (double) total.nanos / total.operations,
+                (double) total.bytes / total.operations,
+                total.bytes / seconds / (1024 * 1024));
+    }
+
+    // Одна итерация: порции операций выполняются, пока суммарное время замера не превысит
+    // ITERATION_NANOS (но хотя бы одна порция)
+    private static Result iteration(Operation operation) throws InappropriateFunctionPointException {
+        Result result = new Result();
+        do {
+            long bytesBefore = allocatedBytes();
+            long start = System.nanoTime();
+            int operations = operation.run();
+            long end = System.nanoTime();
+            long bytesAfter = allocatedBytes();
+            operation.reset();
+
+            result.operations += operations;
+            result.nanos += end - start;
+            result.bytes += bytesAfter - bytesBefore;
+        } while (result.nanos < ITERATION_NANOS);
+        return result;
+    }
+
+    // Генератор псевдослучайных чисел xorshift64
+    private static long next(long state) {
+        state ^= state << 13;
+        state ^= state >>> 7;
+        state ^= state << 17;
+        return state;
+    }
+
+    // Пирамидальная сортировка массива аргументов
+    private static void sort(double[] array) {
+        int n = array.length;
+        for (int i = n / 2 - 1; i >= 0; i--) {
+            siftDown(array, i, n);
+        }
+        for (int end = n - 1; end > 0; end--) {
+            double top = array[0];
+            array[0] = array[end];
+            array[end] = top;
+            siftDown(array, 0, end);
+        }
+    }
+
+    private static void siftDown(double[] array, int i, int n) {
+        double value = array[i];
+        while (2 * i + 1 < n) {
+            int child = 2 * i + 1;
+            if (child + 1 < n && array[child + 1] > array[child]) {
+                child++;
+            }
+            if (array[child] <= value) {
+                break;
+            }
+            array[i] = array[child];
+            i = child;
+        }
+        array[i] = value;
+    }
+}
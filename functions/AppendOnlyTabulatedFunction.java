@@ -0,0 +1,194 @@
+package functions;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+// Табулированная функция для потока точек с возрастающими абсциссами (например, временного ряда).
+// Точки только дописываются справа одним потоком-писателем; любое число потоков-читателей
+// вычисляет значения без блокировок. Точки хранятся в порциях фиксированного размера,
+// поэтому дописывание никогда не копирует уже записанные точки. Количество точек публикуется
+// записью с семантикой release после записи самой точки, а читатели читают его с семантикой
+// acquire, поэтому видят только полностью записанные точки.
+// Изменение и удаление точек не поддерживаются (UnsupportedOperationException).
+public class AppendOnlyTabulatedFunction implements TabulatedFunction {
+    // Размер порции точек (степень двойки)
+    private static final int CHUNK_SHIFT = 12;
+    private static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    private static final double EPSILON = 1e-10;
+
+    private static final VarHandle POINTS_COUNT;
+
+    static {
+        try {
+            POINTS_COUNT = MethodHandles.lookup()
+                    .findVarHandle(AppendOnlyTabulatedFunction.class, "pointsCount", int.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    // Каталоги порций абсцисс и ординат; при заполнении писатель заменяет их увеличенными
+    // копиями, а volatile гарантирует, что читатель увидит новый каталог вместе с содержимым
+    private volatile double[][] xChunks = new double[4][];
+    private volatile double[][] yChunks = new double[4][];
+
+    // Количество опубликованных точек (доступ через POINTS_COUNT)
+    private int pointsCount;
+
+    // Конструктор по умолчанию (функция без точек)
+    public AppendOnlyTabulatedFunction() {
+    }
+
+    // Конструктор с начальными точками
+    public AppendOnlyTabulatedFunction(double[] xs, double[] ys) throws InappropriateFunctionPointException {
+        if (xs.length != ys.length) {
+            throw new IllegalArgumentException("Массивы абсцисс и ординат должны иметь одинаковую длину");
+        }
+        for (int i = 0; i < xs.length; i++) {
+            append(xs[i], ys[i]);
+        }
+    }
+
+    // Количество точек, видимое читателю
+    private int publishedCount() {
+        return (int) POINTS_COUNT.getAcquire(this);
+    }
+
+    private static double get(double[][] chunks, int index) {
+        return chunks[index >>> CHUNK_SHIFT][index & CHUNK_MASK];
+    }
+
+    // Дописывание точки справа (только для единственного потока-писателя)
+    public void append(double x, double y) throws InappropriateFunctionPointException {
+        int count = pointsCount;
+        double[][] xs = xChunks;
+        double[][] ys = yChunks;
+        if (count > 0) {
+            double lastX = get(xs, count - 1);
+            if (!(x > lastX) || Math.abs(x - lastX) < EPSILON) {
+                throw new InappropriateFunctionPointException("Точку можно добавить только правее последней");
+            }
+        }
+
+        int chunk = count >>> CHUNK_SHIFT;
+        if ((count & CHUNK_MASK) == 0) {
+            // Новая порция; при заполнении каталога он заменяется увеличенной копией
+            if (chunk == xs.length) {
+                double[][] newXs = new double[chunk * 2][];
+                double[][] newYs = new double[chunk * 2][];
+                System.arraycopy(xs, 0, newXs, 0, chunk);
+                System.arraycopy(ys, 0, newYs, 0, chunk);
+                xs = newXs;
+                ys = newYs;
+            }
+            xs[chunk] = new double[CHUNK_SIZE];
+            ys[chunk] = new double[CHUNK_SIZE];
+            xChunks = xs;
+            yChunks = ys;
+        }
+        xs[chunk][count & CHUNK_MASK] = x;
+        ys[chunk][count & CHUNK_MASK] = y;
+
+        // Публикация: все записи выше становятся видимы читателям вместе с новым количеством
+        POINTS_COUNT.setRelease(this, count + 1);
+    }
+
+    public void addPoint(FunctionPoint point) throws InappropriateFunctionPointException {
+        append(point.getX(), point.getY());
+    }
+
+    public double getLeftDomainBorder() {
+        if (publishedCount() == 0) {
+            return Double.NaN;
+        }
+        return get(xChunks, 0);
+    }
+
+    public double getRightDomainBorder() {
+        int count = publishedCount();
+        if (count == 0) {
+            return Double.NaN;
+        }
+        return get(xChunks, count - 1);
+    }
+
+    public double getFunctionValue(double x) {
+        // Количество точек читается один раз: вычисление идёт по согласованному префиксу
+        int count = publishedCount();
+        double[][] xs = xChunks;
+        double[][] ys = yChunks;
+        if (count == 0 || x < get(xs, 0) || x > get(xs, count - 1)) {
+            return Double.NaN;
+        }
+        if (count == 1) {
+            return get(ys, 0);
+        }
+
+        // Двоичный поиск интервала
+        int low = 0;
+        int high = count - 1;
+        while (high - low > 1) {
+            int middle = (low + high) >>> 1;
+            if (get(xs, middle) <= x) {
+                low = middle;
+            } else {
+                high = middle;
+            }
+        }
+
+        double leftX = get(xs, low);
+        double rightX = get(xs, high);
+        if (Math.abs(x - leftX) < EPSILON) {
+            return get(ys, low);
+        }
+        if (Math.abs(x - rightX) < EPSILON) {
+            return get(ys, high);
+        }
+        double leftY = get(ys, low);
+        return leftY + (get(ys, high) - leftY) * (x - leftX) / (rightX - leftX);
+    }
+
+    public int getPointsCount() {
+        return publishedCount();
+    }
+
+    // Проверка границ индекса
+    private void checkIndex(int index) {
+        if (index < 0 || index >= publishedCount()) {
+            throw new FunctionPointIndexOutOfBoundsException("Некорректный индекс точки: " + index);
+        }
+    }
+
+    public FunctionPoint getPoint(int index) {
+        checkIndex(index);
+        return new FunctionPoint(get(xChunks, index), get(yChunks, index));
+    }
+
+    public double getPointX(int index) {
+        checkIndex(index);
+        return get(xChunks, index);
+    }
+
+    public double getPointY(int index) {
+        checkIndex(index);
+        return get(yChunks, index);
+    }
+
+    public void setPoint(int index, FunctionPoint point) {
+        throw new UnsupportedOperationException("Функция допускает только дописывание точек");
+    }
+
+    public void setPointX(int index, double x) {
+        throw new UnsupportedOperationException("Функция допускает только дописывание точек");
+    }
+
+    public void setPointY(int index, double y) {
+        throw new UnsupportedOperationException("Функция допускает только дописывание точек");
+    }
+
+    public void deletePoint(int index) {
+        throw new UnsupportedOperationException("Функция допускает только дописывание точек");
+    }
+}
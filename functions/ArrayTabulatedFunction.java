@@ -1,9 +1,26 @@
 package functions;
 
+import java.util.Spliterator;
+
 public class ArrayTabulatedFunction implements TabulatedFunction {
     public FunctionPoint[] points;
     public int pointsCount;
     private static final double EPSILON = 1e-10;
+    
+    // Признак равномерной сетки и её параметры (для поиска интервала за O(1))
+    private boolean uniformGrid;
+    private double gridLeftX;
+    private double gridStep;
+    
+    // Кэш наклонов интервалов (null - кэш выключен): элемент i - наклон интервала [x_i, x_(i+1)],
+    // NaN - наклон ещё не вычислен или устарел после изменения точек
+    private double[] slopes;
+    
+    // Индекс площадей интервалов для вычисления интегралов (null - не построен или устарел)
+    private SegmentAreaTree areaIndex;
+    
+    // Счётчик вставок и удалений точек через методы класса для разделяемых итераторов
+    private int modCount;
 
     public ArrayTabulatedFunction(double leftX, double rightX, int pointsCount) {
         // Проверка условий конструктора
@@ -21,6 +38,8 @@ public class ArrayTabulatedFunction implements TabulatedFunction {
             double x = leftX + i * step; 
             points[i] = new FunctionPoint(x, 0);
         }
+        
+        setUniformGrid(leftX, step);
     }
     
     public ArrayTabulatedFunction(double leftX, double rightX, double[] values) {
@@ -40,6 +59,96 @@ public class ArrayTabulatedFunction implements TabulatedFunction {
             double x = leftX + i * step;
             points[i] = new FunctionPoint(x, values[i]);
         }
+        
+        setUniformGrid(leftX, step);
+    }
+    
+    // Включение и выключение кэша наклонов интервалов. С включённым кэшем значение на интервале
+    // вычисляется без деления; наклон вычисляется при первом обращении к интервалу и сбрасывается
+    // только для интервалов, затронутых изменением точек
+    public void setSegmentCoefficientsEnabled(boolean enabled) {
+        if (!enabled) {
+            slopes = null;
+        } else if (slopes == null) {
+            slopes = new double[points.length];
+            for (int i = 0; i < slopes.length; i++) {
+                slopes[i] = Double.NaN;
+            }
+        }
+    }
+    
+    public boolean isSegmentCoefficientsEnabled() {
+        return slopes != null;
+    }
+    
+    // Сброс наклона интервала с номером segment (если он существует)
+    private void invalidateSegment(int segment) {
+        if (slopes != null && segment >= 0 && segment < pointsCount - 1) {
+            slopes[segment] = Double.NaN;
+        }
+    }
+    
+    // Значение на интервале [x_i, x_(i+1)]: через кэш наклонов, если он включён.
+    // Ссылка на массив наклонов читается один раз, поэтому его замена или выключение кэша
+    // между проверкой и записью не приводят к обращению к другому массиву
+    private double segmentValue(int i, double x) {
+        double[] cache = slopes;
+        if (cache == null) {
+            return linearInterpolation(points[i], points[i+1], x);
+        }
+        double slope = cache[i];
+        if (slope != slope) {
+            slope = SegmentInterpolation.slope(points[i].getX(), points[i].getY(), points[i+1].getX(), points[i+1].getY());
+            cache[i] = slope;
+        }
+        return SegmentInterpolation.value(points[i].getX(), points[i].getY(), slope, x);
+    }
+    
+    // Запоминаем параметры равномерной сетки
+    private void setUniformGrid(double leftX, double step) {
+        uniformGrid = true;
+        gridLeftX = leftX;
+        gridStep = step;
+    }
+    
+    // Проверка, совпадает ли x с узлом равномерной сетки с номером index
+    private boolean isGridNode(int index, double x) {
+        return Math.abs(gridLeftX + index * gridStep - x) < EPSILON;
+    }
+    
+    // Поиск номера интервала [x_i, x_(i+1)], содержащего x (x лежит в области определения)
+    private int findSegmentIndex(double x) {
+        int index;
+        if (uniformGrid) {
+            // Равномерная сетка: номер интервала вычисляется напрямую
+            index = (int) ((x - gridLeftX) / gridStep);
+            if (index < 0) {
+                index = 0;
+            } else if (index > pointsCount - 2) {
+                index = pointsCount - 2;
+            }
+            // Поправка на погрешность округления
+            while (index > 0 && x < points[index].getX()) {
+                index--;
+            }
+            while (index < pointsCount - 2 && x > points[index + 1].getX()) {
+                index++;
+            }
+            return index;
+        }
+        
+        // Двоичный поиск: points[low].x <= x <= points[high].x
+        int low = 0;
+        int high = pointsCount - 1;
+        while (high - low > 1) {
+            int middle = (low + high) >>> 1;
+            if (points[middle].getX() <= x) {
+                low = middle;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
     }
     
     public double getLeftDomainBorder() {
@@ -64,23 +173,212 @@ public class ArrayTabulatedFunction implements TabulatedFunction {
             return Double.NaN;
         } 
         
-        for(int i = 0; i < pointsCount - 1; i++){
-            double curX = points[i].getX();
-            double nextX = points[i+1].getX();
-            
-            if(Math.abs(x - curX) < EPSILON){
-                return points[i].getY();
+        int i = findSegmentIndex(x);
+        
+        if(Math.abs(x - points[i].getX()) < EPSILON){
+            return points[i].getY();
+        }
+        
+        if(Math.abs(x - points[i+1].getX()) < EPSILON){
+            return points[i+1].getY();
+        }
+        
+        return segmentValue(i, x);
+    }
+    
+    public void getFunctionValues(double[] xs, int offset, int length, double[] out) {
+        DoubleArrayTabulatedFunction.checkRange(xs, offset, length, out);
+        int end = offset + length;
+        double leftX = getLeftDomainBorder();
+        double rightX = getRightDomainBorder();
+        // На равномерной сетке интервал вычисляется сразу, слияние не нужно. Иначе для
+        // упорядоченных аргументов проход начинается с интервала первого из них и выбирается,
+        // только если между первым и последним аргументом не слишком много интервалов
+        int i = 0;
+        boolean merge = !uniformGrid && length > 0 && DoubleArrayTabulatedFunction.isSorted(xs, offset, end);
+        if (merge) {
+            i = findSegmentIndex(Math.max(xs[offset], leftX));
+            int last = findSegmentIndex(Math.min(xs[end - 1], rightX));
+            merge = DoubleArrayTabulatedFunction.isMergeCheaper(last - i, length, pointsCount);
+        }
+        if (!merge) {
+            // Поиск интервала для каждого аргумента отдельно
+            for (int q = offset; q < end; q++) {
+                out[q] = getFunctionValue(xs[q]);
+            }
+            return;
+        }
+        
+        // Один проход слиянием по интервалам
+        for (int q = offset; q < end; q++) {
+            double x = xs[q];
+            if (x < leftX || x > rightX) {
+                out[q] = Double.NaN;
+                continue;
             }
-            
-            if(x > curX && x < nextX){
-                return linearInterpolation(points[i], points[i+1], x);
+            while (i < pointsCount - 2 && x > points[i+1].getX()) {
+                i++;
             }
-            
-            if(Math.abs(x - nextX) < EPSILON){
-                return points[i+1].getY();
+            if (Math.abs(x - points[i].getX()) < EPSILON) {
+                out[q] = points[i].getY();
+            } else if (Math.abs(x - points[i+1].getX()) < EPSILON) {
+                out[q] = points[i+1].getY();
+            } else {
+                out[q] = segmentValue(i, x);
+            }
+        }
+    }
+    
+    // Интеграл через индекс площадей: полные интервалы суммируются за O(log n),
+    // неполные крайние интервалы вычисляются отдельно
+    public double integral(double a, double b) {
+        if (a > b) {
+            return -integral(b, a);
+        }
+        if (!(a >= getLeftDomainBorder()) || !(b <= getRightDomainBorder())) {
+            return Double.NaN;
+        }
+        
+        int i = findSegmentIndex(a);
+        int j = findSegmentIndex(b);
+        if (i == j) {
+            return partialArea(i, a, b);
+        }
+        SegmentAreaTree index = areaIndex();
+        return partialArea(i, a, points[i+1].getX())
+                + (index.prefixSum(j) - index.prefixSum(i + 1))
+                + partialArea(j, points[j].getX(), b);
+    }
+    
+    // Площадь под интервалом i на отрезке [from, to] внутри него
+    private double partialArea(int i, double from, double to) {
+        double x1 = points[i].getX();
+        double y1 = points[i].getY();
+        double slope = SegmentInterpolation.slope(x1, y1, points[i+1].getX(), points[i+1].getY());
+        return SegmentAreaTree.trapezoid(from, y1 + slope * (from - x1), to, y1 + slope * (to - x1));
+    }
+    
+    // Площадь под интервалом i целиком
+    private double segmentArea(int i) {
+        return SegmentAreaTree.trapezoid(points[i].getX(), points[i].getY(), points[i+1].getX(), points[i+1].getY());
+    }
+    
+    // Индекс площадей, построенный заново после вставок и удалений точек
+    private SegmentAreaTree areaIndex() {
+        SegmentAreaTree index = areaIndex;
+        if (index == null) {
+            double[] areas = new double[pointsCount - 1];
+            for (int i = 0; i < areas.length; i++) {
+                areas[i] = segmentArea(i);
+            }
+            index = new SegmentAreaTree(areas);
+            areaIndex = index;
+        }
+        return index;
+    }
+    
+    // Обновление площадей интервалов, концом которых служит точка index, за O(log n)
+    private void updateAreas(int index) {
+        SegmentAreaTree tree = areaIndex;
+        if (tree != null) {
+            if (index > 0) {
+                tree.set(index - 1, segmentArea(index - 1));
+            }
+            if (index < pointsCount - 1) {
+                tree.set(index, segmentArea(index));
+            }
+        }
+    }
+    
+    public FrozenTabulatedFunction freeze() {
+        double[] xs = new double[pointsCount];
+        double[] ys = new double[pointsCount];
+        for (int i = 0; i < pointsCount; i++) {
+            xs[i] = points[i].getX();
+            ys[i] = points[i].getY();
+        }
+        return new FrozenTabulatedFunction(xs, ys);
+    }
+    
+    public void forEachPoint(PointVisitor visitor) {
+        for (int i = 0; i < pointsCount; i++) {
+            visitor.visit(points[i].getX(), points[i].getY());
+        }
+    }
+    
+    // Точки хранятся объектами FunctionPoint, поэтому координаты копируются поэлементно
+    // (System.arraycopy применим только к хранилищам на массивах double)
+    public void copyXs(double[] out) {
+        if (out.length < pointsCount) {
+            throw new IllegalArgumentException("Массив короче количества точек");
+        }
+        for (int i = 0; i < pointsCount; i++) {
+            out[i] = points[i].getX();
+        }
+    }
+    
+    public void copyYs(double[] out) {
+        if (out.length < pointsCount) {
+            throw new IllegalArgumentException("Массив короче количества точек");
+        }
+        for (int i = 0; i < pointsCount; i++) {
+            out[i] = points[i].getY();
+        }
+    }
+    
+    // Разделяемые итераторы читают точки прямо из массива
+    public Spliterator<FunctionPoint> pointSpliterator() {
+        return new PointSpliterator(new ArrayPointRange(0, pointsCount));
+    }
+    
+    public Spliterator<FunctionSegment> segmentSpliterator() {
+        return new SegmentSpliterator(new ArrayPointRange(0, pointsCount));
+    }
+    
+    public Spliterator.OfDouble xSpliterator() {
+        return new CoordinateSpliterator(new ArrayPointRange(0, pointsCount), false);
+    }
+    
+    public Spliterator.OfDouble ySpliterator() {
+        return new CoordinateSpliterator(new ArrayPointRange(0, pointsCount), true);
+    }
+    
+    // Диапазон точек массива; деление - вычисление номера середины за O(1)
+    private class ArrayPointRange extends PointRange {
+        private final int expectedModCount;
+        
+        ArrayPointRange(int index, int fence) {
+            this(index, fence, modCount);
+        }
+        
+        private ArrayPointRange(int index, int fence, int expectedModCount) {
+            super(index, fence);
+            this.expectedModCount = expectedModCount;
+        }
+        
+        double x() {
+            return points[index].getX();
+        }
+        
+        double y() {
+            return points[index].getY();
+        }
+        
+        void advance() {
+            index++;
+        }
+        
+        PointRange split(int middle, int prefixFence) {
+            PointRange prefix = new ArrayPointRange(index, prefixFence, expectedModCount);
+            index = middle;
+            return prefix;
+        }
+        
+        void checkForComodification() {
+            if (expectedModCount != modCount) {
+                throw new IllegalStateException("Точки функции изменились во время обхода");
             }
         }
-        return points[pointsCount - 1].getY();
     }
     
     public int getPointsCount() {
@@ -109,7 +407,15 @@ public class ArrayTabulatedFunction implements TabulatedFunction {
             throw new InappropriateFunctionPointException("X координата точки должна быть меньше следующей");
         }
         
+        // Сдвиг узла нарушает равномерность сетки
+        if (uniformGrid && !isGridNode(index, point.getX())) {
+            uniformGrid = false;
+        }
+        
         points[index] = new FunctionPoint(point);
+        invalidateSegment(index - 1);
+        invalidateSegment(index);
+        updateAreas(index);
     }
     
     public double getPointX(int index){
@@ -134,7 +440,15 @@ public class ArrayTabulatedFunction implements TabulatedFunction {
             throw new InappropriateFunctionPointException("X координата должна быть меньше следующей");
         }
         
+        // Сдвиг узла нарушает равномерность сетки
+        if (uniformGrid && !isGridNode(index, x)) {
+            uniformGrid = false;
+        }
+        
         points[index].setX(x);
+        invalidateSegment(index - 1);
+        invalidateSegment(index);
+        updateAreas(index);
     }
 
     public double getPointY(int index){
@@ -151,6 +465,9 @@ public class ArrayTabulatedFunction implements TabulatedFunction {
             throw new FunctionPointIndexOutOfBoundsException("Некорректный индекс точки: " + index);
         }
         points[index].setY(y);
+        invalidateSegment(index - 1);
+        invalidateSegment(index);
+        updateAreas(index);
     }
 
     public void deletePoint(int index){
@@ -167,45 +484,191 @@ public class ArrayTabulatedFunction implements TabulatedFunction {
         if (pointsCount - 1 - index >= 0) {
             System.arraycopy(points, index + 1, points, index, pointsCount - 1 - index);
         }
+        // Интервалы правее удалённой точки сдвигаются вместе с точками, два соседних интервала сливаются
+        if (slopes != null) {
+            if (pointsCount - 2 - index > 0) {
+                System.arraycopy(slopes, index + 1, slopes, index, pointsCount - 2 - index);
+            }
+            if (index > 0) {
+                slopes[index - 1] = Double.NaN;
+            }
+        }
+        // Удаление крайней точки сохраняет равномерность сетки, удаление внутренней - нет
+        if (index == 0) {
+            gridLeftX += gridStep;
+        } else if (index != pointsCount - 1) {
+            uniformGrid = false;
+        }
+        
         pointsCount--;
         points[pointsCount] = null;
+        areaIndex = null;
+        modCount++;
     }
 
     public void addPoint(FunctionPoint point) throws InappropriateFunctionPointException {
         FunctionPoint newPoint = new FunctionPoint(point);
         double newX = newPoint.getX();
         
-        // Проверяем, не существует ли уже точка с таким X
-        for (int i = 0; i < pointsCount; i++) {
-            if (Math.abs(points[i].getX() - newX) < EPSILON) {
-                throw new InappropriateFunctionPointException("Точка с таким X уже существует");
+        // Находим позицию для вставки двоичным поиском
+        int insertIndex = 0;
+        int high = pointsCount;
+        while (insertIndex < high) {
+            int middle = (insertIndex + high) >>> 1;
+            if (points[middle].getX() < newX) {
+                insertIndex = middle + 1;
+            } else {
+                high = middle;
             }
         }
         
-        // Создаем новый массив на 1 элемент больше
-        FunctionPoint[] newArray = new FunctionPoint[pointsCount + 1];
+        // Проверяем, не существует ли уже точка с таким X (точки упорядочены - достаточно соседей)
+        if ((insertIndex < pointsCount && Math.abs(points[insertIndex].getX() - newX) < EPSILON)
+                || (insertIndex > 0 && Math.abs(points[insertIndex - 1].getX() - newX) < EPSILON)) {
+            throw new InappropriateFunctionPointException("Точка с таким X уже существует");
+        }
         
-        // Находим позицию для вставки
-        int insertIndex = 0;
-        while (insertIndex < pointsCount && points[insertIndex].getX() < newX) {
-            insertIndex++;
+        // Расширяем массив с запасом, чтобы вставки в среднем не требовали выделения памяти
+        if (pointsCount == points.length) {
+            FunctionPoint[] newArray = new FunctionPoint[pointsCount + (pointsCount >> 1) + 1];
+            System.arraycopy(points, 0, newArray, 0, pointsCount);
+            points = newArray;
+            if (slopes != null) {
+                double[] newSlopes = new double[newArray.length];
+                System.arraycopy(slopes, 0, newSlopes, 0, pointsCount);
+                slopes = newSlopes;
+            }
         }
         
-        // Копируем элементы до позиции вставки с помощью System.arraycopy
-        if (insertIndex > 0) {
-            System.arraycopy(points, 0, newArray, 0, insertIndex);
+        // Сдвигаем элементы после позиции вставки с помощью System.arraycopy
+        if (pointsCount - insertIndex > 0) {
+            System.arraycopy(points, insertIndex, points, insertIndex + 1, pointsCount - insertIndex);
         }
         
         // Вставляем новую точку
-        newArray[insertIndex] = newPoint;
+        points[insertIndex] = newPoint;
         
-        // Копируем элементы после позиции вставки с помощью System.arraycopy
-        if (pointsCount - insertIndex > 0) {
-            System.arraycopy(points, insertIndex, newArray, insertIndex + 1, pointsCount - insertIndex);
+        // Интервалы правее новой точки сдвигаются вместе с точками, интервал с новой точкой делится на два
+        if (slopes != null) {
+            if (pointsCount - 1 - insertIndex > 0) {
+                System.arraycopy(slopes, insertIndex, slopes, insertIndex + 1, pointsCount - 1 - insertIndex);
+            }
+            if (insertIndex > 0) {
+                slopes[insertIndex - 1] = Double.NaN;
+            }
+            if (insertIndex < pointsCount) {
+                slopes[insertIndex] = Double.NaN;
+            }
+        }
+        
+        // Сетка остаётся равномерной, только если точка продолжает её с одного из концов
+        if (uniformGrid) {
+            if (insertIndex == 0 && Math.abs(gridLeftX - gridStep - newX) < EPSILON) {
+                gridLeftX -= gridStep;
+            } else if (insertIndex != pointsCount || !isGridNode(pointsCount, newX)) {
+                uniformGrid = false;
+            }
         }
         
-        // Заменяем старый массив новым
-        points = newArray;
         pointsCount++;
+        areaIndex = null;
+        modCount++;
+    }
+    
+    // Добавление набора точек: набор сортируется и сливается с имеющимися точками за один проход.
+    // При совпадении абсцисс исключение выбрасывается до изменения функции
+    public void addPoints(FunctionPoint[] newPoints) throws InappropriateFunctionPointException {
+        if (newPoints.length == 0) {
+            return;
+        }
+        
+        // Копируем и сортируем добавляемые точки по X
+        FunctionPoint[] batch = new FunctionPoint[newPoints.length];
+        for (int i = 0; i < newPoints.length; i++) {
+            batch[i] = new FunctionPoint(newPoints[i]);
+        }
+        sortByX(batch);
+        
+        // Слияние в новый массив с запасом для последующих вставок
+        int newCount = pointsCount + batch.length;
+        FunctionPoint[] merged = new FunctionPoint[newCount + (newCount >> 1)];
+        int i = 0;
+        int j = 0;
+        int k = 0;
+        while (i < pointsCount || j < batch.length) {
+            FunctionPoint next;
+            if (j == batch.length || (i < pointsCount && points[i].getX() < batch[j].getX())) {
+                next = points[i++];
+            } else {
+                next = batch[j++];
+            }
+            if (k > 0 && Math.abs(merged[k - 1].getX() - next.getX()) < EPSILON) {
+                throw new InappropriateFunctionPointException("Точка с таким X уже существует");
+            }
+            merged[k++] = next;
+        }
+        
+        points = merged;
+        pointsCount = newCount;
+        uniformGrid = false;
+        areaIndex = null;
+        modCount++;
+        
+        // Все интервалы изменились: кэш наклонов заполняется заново по мере обращений
+        if (slopes != null) {
+            slopes = null;
+            setSegmentCoefficientsEnabled(true);
+        }
+    }
+    
+    // Удаление за один проход всех точек i, для которых keep[i] == false
+    public void retainPoints(boolean[] keep) {
+        DoubleArrayTabulatedFunction.checkKeep(keep, pointsCount);
+        int count = 0;
+        for (int i = 0; i < pointsCount; i++) {
+            if (keep[i]) {
+                points[count++] = points[i];
+            }
+        }
+        if (count == pointsCount) {
+            return;
+        }
+        for (int i = count; i < pointsCount; i++) {
+            points[i] = null;
+        }
+        pointsCount = count;
+        uniformGrid = false;
+        areaIndex = null;
+        modCount++;
+        
+        // Интервалы между оставшимися точками изменились: кэш наклонов заполняется заново
+        if (slopes != null) {
+            slopes = null;
+            setSegmentCoefficientsEnabled(true);
+        }
+    }
+    
+    // Сортировка точек по X слиянием (устойчивая, O(n log n))
+    private static void sortByX(FunctionPoint[] array) {
+        FunctionPoint[] buffer = new FunctionPoint[array.length];
+        for (int width = 1; width < array.length; width *= 2) {
+            for (int left = 0; left < array.length - width; left += 2 * width) {
+                int middle = left + width;
+                int right = Math.min(left + 2 * width, array.length);
+                int i = left;
+                int j = middle;
+                int k = left;
+                while (i < middle && j < right) {
+                    buffer[k++] = array[j].getX() < array[i].getX() ? array[j++] : array[i++];
+                }
+                while (i < middle) {
+                    buffer[k++] = array[i++];
+                }
+                while (j < right) {
+                    buffer[k++] = array[j++];
+                }
+                System.arraycopy(buffer, left, array, left, right - left);
+            }
+        }
     }
-}
\ No newline at end of file
+}
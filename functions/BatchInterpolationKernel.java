@@ -0,0 +1,9 @@
+package functions;
+
+// Ядро пакетной линейной интерполяции по столбцам точек: значения для аргументов
+// queries[offset .. offset + length) записываются в out[offset .. offset + length)
+// и совпадают со значениями DoubleArrayTabulatedFunction.valuesAt
+interface BatchInterpolationKernel {
+    void evaluate(double[] xs, double[] ys, int pointsCount,
+                  double[] queries, int offset, int length, double[] out);
+}
@@ -0,0 +1,276 @@
+package functions;
+
+import java.util.Spliterator;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.DoubleSupplier;
+import java.util.function.IntSupplier;
+import java.util.function.Supplier;
+
+// Потокобезопасная табулированная функция.
+// Точки хранятся в собственной копии DoubleArrayTabulatedFunction, методы чтения которой
+// ничего не изменяют. Чтение выполняется оптимистично (без захвата блокировки) и повторяется
+// под блокировкой чтения, только если за это время точки изменились. Изменения выполняются
+// под исключительной блокировкой записи.
+public class ConcurrentTabulatedFunction implements TabulatedFunction {
+    private final StampedLock lock = new StampedLock();
+    private final DoubleArrayTabulatedFunction function;
+
+    // Конструктор-копия любой табулированной функции
+    public ConcurrentTabulatedFunction(TabulatedFunction source) {
+        int pointsCount = source.getPointsCount();
+        double[] xs = new double[pointsCount];
+        double[] ys = new double[pointsCount];
+        for (int i = 0; i < pointsCount; i++) {
+            xs[i] = source.getPointX(i);
+            ys[i] = source.getPointY(i);
+        }
+        this.function = new DoubleArrayTabulatedFunction(xs, ys, pointsCount);
+    }
+
+    // Конструктор по столбцам абсцисс и ординат (массивы копируются)
+    public ConcurrentTabulatedFunction(double[] xs, double[] ys) {
+        this.function = new DoubleArrayTabulatedFunction(xs, ys);
+    }
+
+    // Оптимистичное чтение: действие выполняется без захвата блокировки и повторяется под
+    // блокировкой чтения, только если за это время точки изменились. При оптимистичном чтении
+    // функция может оказаться в промежуточном состоянии, и действие завершится исключением.
+    // Такое исключение значимо, только если точки за это время не менялись
+    private double readDouble(DoubleSupplier read) {
+        long stamp = lock.tryOptimisticRead();
+        try {
+            double value = read.getAsDouble();
+            if (lock.validate(stamp)) {
+                return value;
+            }
+        } catch (RuntimeException e) {
+            if (lock.validate(stamp)) {
+                throw e;
+            }
+        }
+        stamp = lock.readLock();
+        try {
+            return read.getAsDouble();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    private int readInt(IntSupplier read) {
+        long stamp = lock.tryOptimisticRead();
+        try {
+            int value = read.getAsInt();
+            if (lock.validate(stamp)) {
+                return value;
+            }
+        } catch (RuntimeException e) {
+            if (lock.validate(stamp)) {
+                throw e;
+            }
+        }
+        stamp = lock.readLock();
+        try {
+            return read.getAsInt();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    private <T> T readObject(Supplier<T> read) {
+        long stamp = lock.tryOptimisticRead();
+        try {
+            T value = read.get();
+            if (lock.validate(stamp)) {
+                return value;
+            }
+        } catch (RuntimeException e) {
+            if (lock.validate(stamp)) {
+                throw e;
+            }
+        }
+        stamp = lock.readLock();
+        try {
+            return read.get();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    // Действие без результата (заполнение массива): при повторе массив перезаписывается целиком
+    private void readInto(Runnable read) {
+        long stamp = lock.tryOptimisticRead();
+        try {
+            read.run();
+            if (lock.validate(stamp)) {
+                return;
+            }
+        } catch (RuntimeException e) {
+            if (lock.validate(stamp)) {
+                throw e;
+            }
+        }
+        stamp = lock.readLock();
+        try {
+            read.run();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    public double getLeftDomainBorder() {
+        return readDouble(function::getLeftDomainBorder);
+    }
+
+    public double getRightDomainBorder() {
+        return readDouble(function::getRightDomainBorder);
+    }
+
+    public double getFunctionValue(double x) {
+        return readDouble(() -> function.getFunctionValue(x));
+    }
+
+    public void getFunctionValues(double[] xs, int offset, int length, double[] out) {
+        readInto(() -> function.getFunctionValues(xs, offset, length, out));
+    }
+
+    public double integral(double a, double b) {
+        return readDouble(() -> function.integral(a, b));
+    }
+
+    // Снимок копируется под блокировкой чтения, чтобы абсциссы и ординаты были согласованы
+    public FrozenTabulatedFunction freeze() {
+        long stamp = lock.readLock();
+        try {
+            return function.freeze();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    // Курсоры и разделяемые итераторы обходят снимок точек на момент вызова:
+    // блокировку нельзя удерживать, пока ими пользуются
+    public FunctionCursor cursor() {
+        return freeze().cursor();
+    }
+
+    public PointCursor pointCursor() {
+        return freeze().pointCursor();
+    }
+
+    public Spliterator<FunctionPoint> pointSpliterator() {
+        return freeze().pointSpliterator();
+    }
+
+    public Spliterator<FunctionSegment> segmentSpliterator() {
+        return freeze().segmentSpliterator();
+    }
+
+    public Spliterator.OfDouble xSpliterator() {
+        return freeze().xSpliterator();
+    }
+
+    public Spliterator.OfDouble ySpliterator() {
+        return freeze().ySpliterator();
+    }
+
+    // Обход выполняется под блокировкой чтения: обработчик не должен изменять эту функцию
+    public void forEachPoint(PointVisitor visitor) {
+        long stamp = lock.readLock();
+        try {
+            function.forEachPoint(visitor);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    public void copyXs(double[] out) {
+        readInto(() -> function.copyXs(out));
+    }
+
+    public void copyYs(double[] out) {
+        readInto(() -> function.copyYs(out));
+    }
+
+    public int getPointsCount() {
+        return readInt(function::getPointsCount);
+    }
+
+    public FunctionPoint getPoint(int index) {
+        return readObject(() -> function.getPoint(index));
+    }
+
+    public double getPointX(int index) {
+        return readDouble(() -> function.getPointX(index));
+    }
+
+    public double getPointY(int index) {
+        return readDouble(() -> function.getPointY(index));
+    }
+
+    public void setPoint(int index, FunctionPoint point) throws InappropriateFunctionPointException {
+        long stamp = lock.writeLock();
+        try {
+            function.setPoint(index, point);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public void setPointX(int index, double x) throws InappropriateFunctionPointException {
+        long stamp = lock.writeLock();
+        try {
+            function.setPointX(index, x);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public void setPointY(int index, double y) {
+        long stamp = lock.writeLock();
+        try {
+            function.setPointY(index, y);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public void deletePoint(int index) {
+        long stamp = lock.writeLock();
+        try {
+            function.deletePoint(index);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public void addPoint(FunctionPoint point) throws InappropriateFunctionPointException {
+        long stamp = lock.writeLock();
+        try {
+            function.addPoint(point);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    // Упрощение на месте целиком под блокировкой записи: отбор точек и их удаление
+    // выполняются атомарно относительно других изменений
+    SimplificationResult simplifyInPlace(double epsilon) {
+        long stamp = lock.writeLock();
+        try {
+            SimplificationResult result = TabulatedFunctionSimplifier.simplifyInPlace(function, epsilon);
+            return new SimplificationResult(this, result.getOriginalPointsCount(), result.getPointsCount(),
+                    result.getMaxError());
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public void retainPoints(boolean[] keep) {
+        long stamp = lock.writeLock();
+        try {
+            function.retainPoints(keep);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package functions;
+
+import java.util.Spliterator;
+import java.util.function.DoubleConsumer;
+
+// Разделяемый итератор абсцисс или ординат точек функции (без упаковки в Double)
+class CoordinateSpliterator implements Spliterator.OfDouble {
+    private final PointRange range;
+    private final boolean ordinates;
+
+    CoordinateSpliterator(PointRange range, boolean ordinates) {
+        this.range = range;
+        this.ordinates = ordinates;
+    }
+
+    public boolean tryAdvance(DoubleConsumer action) {
+        if (range.index >= range.fence) {
+            return false;
+        }
+        range.checkForComodification();
+        double value = ordinates ? range.y() : range.x();
+        range.advance();
+        action.accept(value);
+        return true;
+    }
+
+    public void forEachRemaining(DoubleConsumer action) {
+        while (range.index < range.fence) {
+            range.checkForComodification();
+            double value = ordinates ? range.y() : range.x();
+            range.advance();
+            action.accept(value);
+        }
+    }
+
+    public Spliterator.OfDouble trySplit() {
+        int middle = (range.index + range.fence) >>> 1;
+        if (middle <= range.index) {
+            return null;
+        }
+        return new CoordinateSpliterator(range.split(middle, middle), ordinates);
+    }
+
+    public long estimateSize() {
+        return range.fence - range.index;
+    }
+
+    public int characteristics() {
+        return ORDERED | SIZED | SUBSIZED | NONNULL;
+    }
+}
@@ -0,0 +1,163 @@
+package functions;
+
+import java.util.Spliterator;
+
+// Табулированная функция с публикацией неизменяемых снимков (копирование при записи).
+// Чтение всегда идёт из текущего снимка без блокировок. Изменения применяются пакетом
+// к закрытой копии точек, после чего новый снимок публикуется одной записью volatile-поля:
+// читатели видят либо старый снимок, либо новый, но никогда не частично изменённый.
+// Каждое одиночное изменение (setPoint, addPoint и т.д.) также пересобирает снимок целиком,
+// поэтому несколько изменений выгоднее объединять в один вызов update().
+public class CopyOnWriteTabulatedFunction implements TabulatedFunction {
+    // Пакет изменений, применяемый к изменяемой копии точек
+    public interface Mutation {
+        void apply(TabulatedFunction function) throws InappropriateFunctionPointException;
+    }
+
+    private volatile FrozenTabulatedFunction snapshot;
+
+    public CopyOnWriteTabulatedFunction(TabulatedFunction source) {
+        this.snapshot = source.freeze();
+    }
+
+    // Текущий снимок; для согласованного чтения нескольких точек следует работать с ним
+    public FrozenTabulatedFunction snapshot() {
+        return snapshot;
+    }
+
+    public FrozenTabulatedFunction freeze() {
+        return snapshot;
+    }
+
+    // Применение пакета изменений и публикация нового снимка.
+    // Если пакет завершился исключением, текущий снимок не меняется
+    public synchronized void update(Mutation mutation) throws InappropriateFunctionPointException {
+        FrozenTabulatedFunction current = snapshot;
+        DoubleArrayTabulatedFunction copy = new DoubleArrayTabulatedFunction(current.xColumn(), current.yColumn());
+        mutation.apply(copy);
+        snapshot = copy.freeze();
+    }
+
+    public double getLeftDomainBorder() {
+        return snapshot.getLeftDomainBorder();
+    }
+
+    public double getRightDomainBorder() {
+        return snapshot.getRightDomainBorder();
+    }
+
+    public double getFunctionValue(double x) {
+        return snapshot.getFunctionValue(x);
+    }
+
+    public void getFunctionValues(double[] xs, int offset, int length, double[] out) {
+        snapshot.getFunctionValues(xs, offset, length, out);
+    }
+
+    public double integral(double a, double b) {
+        return snapshot.integral(a, b);
+    }
+
+    // Обход и копирование идут по одному снимку, даже если во время них функция изменится
+    public void forEachPoint(PointVisitor visitor) {
+        snapshot.forEachPoint(visitor);
+    }
+
+    public PointCursor pointCursor() {
+        return snapshot.pointCursor();
+    }
+
+    public void copyXs(double[] out) {
+        snapshot.copyXs(out);
+    }
+
+    public void copyYs(double[] out) {
+        snapshot.copyYs(out);
+    }
+
+    public Spliterator<FunctionPoint> pointSpliterator() {
+        return snapshot.pointSpliterator();
+    }
+
+    public Spliterator<FunctionSegment> segmentSpliterator() {
+        return snapshot.segmentSpliterator();
+    }
+
+    public Spliterator.OfDouble xSpliterator() {
+        return snapshot.xSpliterator();
+    }
+
+    public Spliterator.OfDouble ySpliterator() {
+        return snapshot.ySpliterator();
+    }
+
+    public int getPointsCount() {
+        return snapshot.getPointsCount();
+    }
+
+    public FunctionPoint getPoint(int index) {
+        return snapshot.getPoint(index);
+    }
+
+    public double getPointX(int index) {
+        return snapshot.getPointX(index);
+    }
+
+    public double getPointY(int index) {
+        return snapshot.getPointY(index);
+    }
+
+    public void setPoint(final int index, final FunctionPoint point) throws InappropriateFunctionPointException {
+        update(function -> function.setPoint(index, point));
+    }
+
+    public void setPointX(final int index, final double x) throws InappropriateFunctionPointException {
+        update(function -> function.setPointX(index, x));
+    }
+
+    public void setPointY(final int index, final double y) {
+        try {
+            update(function -> function.setPointY(index, y));
+        } catch (InappropriateFunctionPointException e) {
+            // setPointY не изменяет абсциссы и не может нарушить упорядоченность точек
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public void deletePoint(final int index) {
+        try {
+            update(function -> function.deletePoint(index));
+        } catch (InappropriateFunctionPointException e) {
+            // deletePoint не может нарушить упорядоченность точек
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public void addPoint(final FunctionPoint point) throws InappropriateFunctionPointException {
+        update(function -> function.addPoint(point));
+    }
+
+    // Упрощение на месте одним пакетом изменений: точки отбираются по той же копии,
+    // из которой удаляются, и результат публикуется одним снимком
+    SimplificationResult simplifyInPlace(final double epsilon) {
+        final SimplificationResult[] result = new SimplificationResult[1];
+        try {
+            update(function -> result[0] = TabulatedFunctionSimplifier.simplifyInPlace(function, epsilon));
+        } catch (InappropriateFunctionPointException e) {
+            // Удаление точек не может нарушить их упорядоченность
+            throw new IllegalStateException(e);
+        }
+        return new SimplificationResult(this, result[0].getOriginalPointsCount(), result[0].getPointsCount(),
+                result[0].getMaxError());
+    }
+
+    // Удаление точек одним пакетом изменений
+    public void retainPoints(final boolean[] keep) {
+        try {
+            update(function -> function.retainPoints(keep));
+        } catch (InappropriateFunctionPointException e) {
+            // Удаление точек не может нарушить их упорядоченность
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package functions;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+
+// Потоковая загрузка табулированной функции из текста со строками вида "x,y".
+// Строки разбираются прямо из байтов без создания строк Java, точки дописываются
+// в растущие массивы примитивов, которые в конце передаются DoubleArrayTabulatedFunction
+// без повторного копирования. Запас вместимости, оставшийся после роста (меньше половины
+// числа точек), не обрезается и остаётся у функции для последующих вставок точек.
+// Пустые строки и строки, начинающиеся с '#', пропускаются.
+public final class CsvTabulatedFunctionLoader {
+    // Размер буфера чтения
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    // Начальная вместимость столбцов точек
+    private static final int INITIAL_CAPACITY = 1024;
+
+    // Степени десяти, точно представимые в double (для быстрого разбора чисел)
+    private static final double[] POWERS_OF_TEN = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10,
+        1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    // Наибольшая мантисса, точно представимая в double
+    private static final long MAX_EXACT_MANTISSA = 1L << 53;
+
+    // Загружаемые точки
+    private double[] xs = new double[INITIAL_CAPACITY];
+    private double[] ys = new double[INITIAL_CAPACITY];
+    private int pointsCount;
+
+    // Текущая строка и позиция разбора в ней
+    private byte[] line = new byte[256];
+    private int lineLength;
+    private int position;
+    private long lineNumber;
+
+    private CsvTabulatedFunctionLoader() {
+    }
+
+    // Загрузка функции из канала (канал читается до конца, но не закрывается)
+    public static DoubleArrayTabulatedFunction load(ReadableByteChannel channel)
+            throws IOException, InappropriateFunctionPointException {
+        CsvTabulatedFunctionLoader loader = new CsvTabulatedFunctionLoader();
+        loader.readAll(channel);
+        if (loader.pointsCount < 2) {
+            throw new IllegalArgumentException("Количество точек должно быть не менее двух");
+        }
+        return new DoubleArrayTabulatedFunction(loader.xs, loader.ys, loader.pointsCount);
+    }
+
+    private void readAll(ReadableByteChannel channel) throws IOException, InappropriateFunctionPointException {
+        ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        byte[] bytes = buffer.array();
+        while (channel.read(buffer) != -1) {
+            int length = buffer.position();
+            for (int i = 0; i < length; i++) {
+                byte b = bytes[i];
+                if (b == '\n') {
+                    parseLine();
+                    lineLength = 0;
+                } else {
+                    if (lineLength == line.length) {
+                        byte[] newLine = new byte[line.length * 2];
+                        System.arraycopy(line, 0, newLine, 0, lineLength);
+                        line = newLine;
+                    }
+                    line[lineLength++] = b;
+                }
+            }
+            buffer.clear();
+        }
+        // Последняя строка может не заканчиваться переводом строки
+        parseLine();
+    }
+
+    private void parseLine() throws IOException, InappropriateFunctionPointException {
+        lineNumber++;
+        position = 0;
+        skipSpaces();
+        if (position == lineLength || line[position] == '#') {
+            return;
+        }
+
+        double x = parseNumber();
+        skipSpaces();
+        if (position == lineLength || line[position] != ',') {
+            throw new IOException("Ожидалась запятая в строке " + lineNumber);
+        }
+        position++;
+        skipSpaces();
+        double y = parseNumber();
+        skipSpaces();
+        if (position != lineLength) {
+            throw new IOException("Лишние символы в строке " + lineNumber);
+        }
+
+        // То же правило упорядоченности, что и при изменении точек функции
+        if (pointsCount > 0 && !(x > xs[pointsCount - 1])) {
+            throw new InappropriateFunctionPointException(
+                    "X координата должна быть больше предыдущей (строка " + lineNumber + ")");
+        }
+        append(x, y);
+    }
+
+    private void append(double x, double y) {
+        if (pointsCount == xs.length) {
+            int capacity = xs.length + (xs.length >> 1);
+            double[] newXs = new double[capacity];
+            double[] newYs = new double[capacity];
+            System.arraycopy(xs, 0, newXs, 0, pointsCount);
+            System.arraycopy(ys, 0, newYs, 0, pointsCount);
+            xs = newXs;
+            ys = newYs;
+        }
+        xs[pointsCount] = x;
+        ys[pointsCount] = y;
+        pointsCount++;
+    }
+
+    private void skipSpaces() {
+        while (position < lineLength && (line[position] == ' ' || line[position] == '\t' || line[position] == '\r')) {
+            position++;
+        }
+    }
+
+    private boolean isDelimiter(byte b) {
+        return b == ',' || b == ' ' || b == '\t' || b == '\r';
+    }
+
+    // Разбор числа с текущей позиции. Обычная десятичная запись с не более чем 15-16 значащими
+    // цифрами разбирается точно без создания объектов, остальные случаи - через Double.parseDouble
+    private double parseNumber() throws IOException {
+        int start = position;
+        boolean negative = false;
+        if (position < lineLength && (line[position] == '-' || line[position] == '+')) {
+            negative = line[position] == '-';
+            position++;
+        }
+
+        long mantissa = 0;
+        int exponent = 0;
+        boolean hasDigits = false;
+        boolean exact = true;
+        while (position < lineLength && line[position] >= '0' && line[position] <= '9') {
+            if (mantissa < MAX_EXACT_MANTISSA) {
+                mantissa = mantissa * 10 + (line[position] - '0');
+            } else {
+                exact = false;
+            }
+            hasDigits = true;
+            position++;
+        }
+        if (position < lineLength && line[position] == '.') {
+            position++;
+            while (position < lineLength && line[position] >= '0' && line[position] <= '9') {
+                if (mantissa < MAX_EXACT_MANTISSA) {
+                    mantissa = mantissa * 10 + (line[position] - '0');
+                    exponent--;
+                } else {
+                    exact = false;
+                }
+                hasDigits = true;
+                position++;
+            }
+        }
+        if (hasDigits && position < lineLength && (line[position] == 'e' || line[position] == 'E')) {
+            position++;
+            boolean negativeExponent = false;
+            if (position < lineLength && (line[position] == '-' || line[position] == '+')) {
+                negativeExponent = line[position] == '-';
+                position++;
+            }
+            int value = 0;
+            boolean hasExponentDigits = false;
+            while (position < lineLength && line[position] >= '0' && line[position] <= '9') {
+                if (value < 100000) {
+                    value = value * 10 + (line[position] - '0');
+                }
+                hasExponentDigits = true;
+                position++;
+            }
+            if (!hasExponentDigits) {
+                hasDigits = false;
+            }
+            exponent += negativeExponent ? -value : value;
+        }
+
+        // Быстрый путь: мантисса и степень десяти точно представимы, результат округляется один раз
+        if (hasDigits && exact && mantissa <= MAX_EXACT_MANTISSA
+                && exponent >= -22 && exponent <= 22
+                && (position == lineLength || isDelimiter(line[position]))) {
+            double value = exponent >= 0 ? mantissa * POWERS_OF_TEN[exponent] : mantissa / POWERS_OF_TEN[-exponent];
+            return negative ? -value : value;
+        }
+
+        // Медленный путь для редких форм записи (длинные мантиссы, большие порядки, NaN и т.п.)
+        position = start;
+        while (position < lineLength && !isDelimiter(line[position])) {
+            position++;
+        }
+        try {
+            return Double.parseDouble(new String(line, start, position - start, StandardCharsets.ISO_8859_1));
+        } catch (NumberFormatException e) {
+            throw new IOException("Некорректное число в строке " + lineNumber, e);
+        }
+    }
+}
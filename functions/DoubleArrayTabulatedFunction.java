@@ -0,0 +1,405 @@
+package functions;
+
+public class DoubleArrayTabulatedFunction implements TabulatedFunction {
+    // Абсциссы и ординаты точек хранятся в двух параллельных массивах
+    private double[] xs;
+    private double[] ys;
+    private int pointsCount;
+    private static final double EPSILON = 1e-10;
+
+    public DoubleArrayTabulatedFunction(double leftX, double rightX, int pointsCount) {
+        // Проверка условий конструктора
+        if (leftX >= rightX) {
+            throw new IllegalArgumentException("Левая граница должна быть меньше правой");
+        }
+        if (pointsCount < 2) {
+            throw new IllegalArgumentException("Количество точек должно быть не менее двух");
+        }
+
+        this.xs = new double[pointsCount];
+        this.ys = new double[pointsCount];
+        this.pointsCount = pointsCount;
+        double step = (rightX - leftX) / (pointsCount - 1);
+        for (int i = 0; i < pointsCount; i++) {
+            xs[i] = leftX + i * step;
+        }
+    }
+
+    public DoubleArrayTabulatedFunction(double leftX, double rightX, double[] values) {
+        // Проверка условий конструктора
+        if (leftX >= rightX) {
+            throw new IllegalArgumentException("Левая граница должна быть меньше правой");
+        }
+        if (values.length < 2) {
+            throw new IllegalArgumentException("Количество точек должно быть не менее двух");
+        }
+
+        this.xs = new double[values.length];
+        this.ys = new double[values.length];
+        this.pointsCount = values.length;
+        double step = (rightX - leftX) / (values.length - 1);
+        for (int i = 0; i < values.length; i++) {
+            xs[i] = leftX + i * step;
+        }
+        System.arraycopy(values, 0, ys, 0, values.length);
+    }
+
+    // Конструктор по готовым столбцам абсцисс и ординат (массивы копируются)
+    public DoubleArrayTabulatedFunction(double[] xs, double[] ys) {
+        this(copyOf(xs), copyOf(ys), checkLength(xs, ys));
+    }
+
+    // Конструктор без копирования: массивы переходят во владение объекта
+    DoubleArrayTabulatedFunction(double[] xs, double[] ys, int pointsCount) {
+        if (pointsCount < 2) {
+            throw new IllegalArgumentException("Количество точек должно быть не менее двух");
+        }
+        if (xs.length < pointsCount || ys.length < pointsCount) {
+            throw new IllegalArgumentException("Длина массивов меньше количества точек");
+        }
+        for (int i = 1; i < pointsCount; i++) {
+            if (!(xs[i] > xs[i - 1])) {
+                throw new IllegalArgumentException("Абсциссы точек должны строго возрастать");
+            }
+        }
+
+        this.xs = xs;
+        this.ys = ys;
+        this.pointsCount = pointsCount;
+    }
+
+    private static double[] copyOf(double[] array) {
+        double[] copy = new double[array.length];
+        System.arraycopy(array, 0, copy, 0, array.length);
+        return copy;
+    }
+
+    private static int checkLength(double[] xs, double[] ys) {
+        if (xs.length != ys.length) {
+            throw new IllegalArgumentException("Массивы абсцисс и ординат должны иметь одинаковую длину");
+        }
+        return xs.length;
+    }
+
+    // Прямой доступ к столбцам для пакетных вычислителей (массивы не копируются)
+    double[] xColumn() {
+        return xs;
+    }
+
+    double[] yColumn() {
+        return ys;
+    }
+
+    // Поиск номера интервала [xs[i], xs[i+1]], содержащего x (x лежит в области определения)
+    static int findSegmentIndex(double[] xs, int pointsCount, double x) {
+        int low = 0;
+        int high = pointsCount - 1;
+        while (high - low > 1) {
+            int middle = (low + high) >>> 1;
+            if (xs[middle] <= x) {
+                low = middle;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    // Номер первой из pointsCount абсцисс, не меньшей x (pointsCount, если таких нет)
+    static int lowerBound(double[] xs, int pointsCount, double x) {
+        int low = 0;
+        int high = pointsCount;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (xs[middle] < x) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    // Номер первой из pointsCount абсцисс, большей x (pointsCount, если таких нет)
+    static int upperBound(double[] xs, int pointsCount, double x) {
+        int low = 0;
+        int high = pointsCount;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (xs[middle] <= x) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    // Проверка, что аргументы xs[from .. to) упорядочены по неубыванию (NaN нарушает порядок)
+    static boolean isSorted(double[] xs, int from, int to) {
+        for (int i = from + 1; i < to; i++) {
+            if (!(xs[i] >= xs[i - 1])) {
+                return false;
+            }
+        }
+        return from >= to || xs[from] == xs[from];
+    }
+
+    // Выгоднее ли пройти segments интервалов слиянием, чем искать каждый из length
+    // упорядоченных аргументов двоичным поиском среди pointsCount точек
+    static boolean isMergeCheaper(int segments, int length, int pointsCount) {
+        return segments <= (long) length * (32 - Integer.numberOfLeadingZeros(pointsCount));
+    }
+
+    // Проверка массива признаков сохраняемых точек (см. TabulatedFunction.retainPoints);
+    // возвращает количество сохраняемых точек
+    static int checkKeep(boolean[] keep, long pointsCount) {
+        if (keep.length != pointsCount) {
+            throw new IllegalArgumentException("Длина массива признаков не совпадает с количеством точек");
+        }
+        int retained = 0;
+        for (boolean kept : keep) {
+            if (kept) {
+                retained++;
+            }
+        }
+        if (retained < 2) {
+            throw new IllegalStateException("Невозможно удалить точку: должно остаться минимум 2 точки");
+        }
+        return retained;
+    }
+
+    // Проверка диапазона [offset, offset + length) массивов аргументов и результатов
+    static void checkRange(double[] xs, int offset, int length, double[] out) {
+        if (offset < 0 || length < 0 || offset > xs.length - length) {
+            throw new IllegalArgumentException("Некорректный диапазон аргументов: " + offset + ", " + length);
+        }
+        if (offset > out.length - length) {
+            throw new IllegalArgumentException("Массив результатов короче массива аргументов");
+        }
+    }
+
+    // Значение кусочно-линейной функции по столбцам точек
+    static double valueAt(double[] xs, double[] ys, int pointsCount, double x) {
+        if (x < xs[0] || x > xs[pointsCount - 1]) {
+            return Double.NaN;
+        }
+
+        int i = findSegmentIndex(xs, pointsCount, x);
+
+        if (Math.abs(x - xs[i]) < EPSILON) {
+            return ys[i];
+        }
+        if (Math.abs(x - xs[i + 1]) < EPSILON) {
+            return ys[i + 1];
+        }
+
+        return ys[i] + (ys[i + 1] - ys[i]) * (x - xs[i]) / (xs[i + 1] - xs[i]);
+    }
+
+    // Значения кусочно-линейной функции для аргументов queries[offset .. offset + length)
+    // (результат в out[offset .. offset + length))
+    static void valuesAt(double[] xs, double[] ys, int pointsCount,
+                         double[] queries, int offset, int length, double[] out) {
+        checkRange(queries, offset, length, out);
+        int end = offset + length;
+        // Для упорядоченных аргументов проход начинается с интервала первого из них;
+        // слияние выбирается, только если между первым и последним аргументом
+        // не слишком много интервалов
+        int i = 0;
+        boolean merge = isSorted(queries, offset, end) && length > 0;
+        if (merge) {
+            i = findSegmentIndex(xs, pointsCount, Math.max(queries[offset], xs[0]));
+            int last = findSegmentIndex(xs, pointsCount, Math.min(queries[end - 1], xs[pointsCount - 1]));
+            merge = isMergeCheaper(last - i, length, pointsCount);
+        }
+        if (!merge) {
+            for (int q = offset; q < end; q++) {
+                out[q] = valueAt(xs, ys, pointsCount, queries[q]);
+            }
+            return;
+        }
+
+        // Один проход слиянием по интервалам
+        for (int q = offset; q < end; q++) {
+            double x = queries[q];
+            if (x < xs[0] || x > xs[pointsCount - 1]) {
+                out[q] = Double.NaN;
+                continue;
+            }
+            while (i < pointsCount - 2 && x > xs[i + 1]) {
+                i++;
+            }
+            if (Math.abs(x - xs[i]) < EPSILON) {
+                out[q] = ys[i];
+            } else if (Math.abs(x - xs[i + 1]) < EPSILON) {
+                out[q] = ys[i + 1];
+            } else {
+                out[q] = ys[i] + (ys[i + 1] - ys[i]) * (x - xs[i]) / (xs[i + 1] - xs[i]);
+            }
+        }
+    }
+
+    public double getLeftDomainBorder() {
+        return xs[0];
+    }
+
+    public double getRightDomainBorder() {
+        return xs[pointsCount - 1];
+    }
+
+    public double getFunctionValue(double x) {
+        return valueAt(xs, ys, pointsCount, x);
+    }
+
+    public void getFunctionValues(double[] queries, int offset, int length, double[] out) {
+        valuesAt(xs, ys, pointsCount, queries, offset, length, out);
+    }
+
+    // Неизменяемая компактная копия функции
+    public FrozenTabulatedFunction freeze() {
+        double[] frozenXs = new double[pointsCount];
+        double[] frozenYs = new double[pointsCount];
+        System.arraycopy(xs, 0, frozenXs, 0, pointsCount);
+        System.arraycopy(ys, 0, frozenYs, 0, pointsCount);
+        return new FrozenTabulatedFunction(frozenXs, frozenYs);
+    }
+
+    public void forEachPoint(PointVisitor visitor) {
+        for (int i = 0; i < pointsCount; i++) {
+            visitor.visit(xs[i], ys[i]);
+        }
+    }
+
+    public void copyXs(double[] out) {
+        if (out.length < pointsCount) {
+            throw new IllegalArgumentException("Массив короче количества точек");
+        }
+        System.arraycopy(xs, 0, out, 0, pointsCount);
+    }
+
+    public void copyYs(double[] out) {
+        if (out.length < pointsCount) {
+            throw new IllegalArgumentException("Массив короче количества точек");
+        }
+        System.arraycopy(ys, 0, out, 0, pointsCount);
+    }
+
+    public int getPointsCount() {
+        return pointsCount;
+    }
+
+    // Проверка границ индекса
+    private void checkIndex(int index) {
+        if (index < 0 || index >= pointsCount) {
+            throw new FunctionPointIndexOutOfBoundsException("Некорректный индекс точки: " + index);
+        }
+    }
+
+    // Проверка упорядоченности точек при изменении абсциссы
+    private void checkX(int index, double x) throws InappropriateFunctionPointException {
+        if (index > 0 && x <= xs[index - 1]) {
+            throw new InappropriateFunctionPointException("X координата должна быть больше предыдущей");
+        }
+        if (index < pointsCount - 1 && x >= xs[index + 1]) {
+            throw new InappropriateFunctionPointException("X координата должна быть меньше следующей");
+        }
+    }
+
+    public FunctionPoint getPoint(int index) {
+        checkIndex(index);
+        return new FunctionPoint(xs[index], ys[index]);
+    }
+
+    public void setPoint(int index, FunctionPoint point) throws InappropriateFunctionPointException {
+        checkIndex(index);
+        checkX(index, point.getX());
+        xs[index] = point.getX();
+        ys[index] = point.getY();
+    }
+
+    public double getPointX(int index) {
+        checkIndex(index);
+        return xs[index];
+    }
+
+    public void setPointX(int index, double x) throws InappropriateFunctionPointException {
+        checkIndex(index);
+        checkX(index, x);
+        xs[index] = x;
+    }
+
+    public double getPointY(int index) {
+        checkIndex(index);
+        return ys[index];
+    }
+
+    public void setPointY(int index, double y) {
+        checkIndex(index);
+        ys[index] = y;
+    }
+
+    public void deletePoint(int index) {
+        checkIndex(index);
+
+        // Проверка минимального количества точек
+        if (pointsCount < 3) {
+            throw new IllegalStateException("Невозможно удалить точку: должно остаться минимум 2 точки");
+        }
+
+        System.arraycopy(xs, index + 1, xs, index, pointsCount - 1 - index);
+        System.arraycopy(ys, index + 1, ys, index, pointsCount - 1 - index);
+        pointsCount--;
+    }
+
+    // Удаление за один проход всех точек i, для которых keep[i] == false
+    public void retainPoints(boolean[] keep) {
+        checkKeep(keep, pointsCount);
+        int count = 0;
+        for (int i = 0; i < pointsCount; i++) {
+            if (keep[i]) {
+                xs[count] = xs[i];
+                ys[count] = ys[i];
+                count++;
+            }
+        }
+        pointsCount = count;
+    }
+
+    public void addPoint(FunctionPoint point) throws InappropriateFunctionPointException {
+        double newX = point.getX();
+
+        // Позиция вставки и проверка на совпадение абсцисс одним двоичным поиском
+        int insertIndex = 0;
+        int high = pointsCount;
+        while (insertIndex < high) {
+            int middle = (insertIndex + high) >>> 1;
+            if (xs[middle] < newX) {
+                insertIndex = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        if ((insertIndex < pointsCount && Math.abs(xs[insertIndex] - newX) < EPSILON)
+                || (insertIndex > 0 && Math.abs(xs[insertIndex - 1] - newX) < EPSILON)) {
+            throw new InappropriateFunctionPointException("Точка с таким X уже существует");
+        }
+
+        // Расширяем массивы с запасом, чтобы вставки в среднем стоили O(1) выделений
+        if (pointsCount == xs.length) {
+            int capacity = xs.length + (xs.length >> 1) + 1;
+            double[] newXs = new double[capacity];
+            double[] newYs = new double[capacity];
+            System.arraycopy(xs, 0, newXs, 0, pointsCount);
+            System.arraycopy(ys, 0, newYs, 0, pointsCount);
+            xs = newXs;
+            ys = newYs;
+        }
+
+        System.arraycopy(xs, insertIndex, xs, insertIndex + 1, pointsCount - insertIndex);
+        System.arraycopy(ys, insertIndex, ys, insertIndex + 1, pointsCount - insertIndex);
+        xs[insertIndex] = newX;
+        ys[insertIndex] = point.getY();
+        pointsCount++;
+    }
+}
@@ -0,0 +1,113 @@
+package functions;
+
+// Неизменяемая табулированная функция над компактными массивами примитивов.
+// Создаётся методом freeze(); может свободно использоваться несколькими потоками
+// без блокировок. Изменяющие методы выбрасывают UnsupportedOperationException
+public final class FrozenTabulatedFunction implements TabulatedFunction {
+    private final double[] xs;
+    private final double[] ys;
+
+    // Массивы переходят во владение объекта и больше не должны изменяться
+    FrozenTabulatedFunction(double[] xs, double[] ys) {
+        if (xs.length < 2) {
+            throw new IllegalArgumentException("Количество точек должно быть не менее двух");
+        }
+        this.xs = xs;
+        this.ys = ys;
+    }
+
+    // Прямой доступ к столбцам для пакетных вычислителей (массивы не копируются)
+    double[] xColumn() {
+        return xs;
+    }
+
+    double[] yColumn() {
+        return ys;
+    }
+
+    public double getLeftDomainBorder() {
+        return xs[0];
+    }
+
+    public double getRightDomainBorder() {
+        return xs[xs.length - 1];
+    }
+
+    public double getFunctionValue(double x) {
+        return DoubleArrayTabulatedFunction.valueAt(xs, ys, xs.length, x);
+    }
+
+    public void getFunctionValues(double[] queries, int offset, int length, double[] out) {
+        DoubleArrayTabulatedFunction.valuesAt(xs, ys, xs.length, queries, offset, length, out);
+    }
+
+    public FrozenTabulatedFunction freeze() {
+        return this;
+    }
+
+    public void forEachPoint(PointVisitor visitor) {
+        for (int i = 0; i < xs.length; i++) {
+            visitor.visit(xs[i], ys[i]);
+        }
+    }
+
+    public void copyXs(double[] out) {
+        if (out.length < xs.length) {
+            throw new IllegalArgumentException("Массив короче количества точек");
+        }
+        System.arraycopy(xs, 0, out, 0, xs.length);
+    }
+
+    public void copyYs(double[] out) {
+        if (out.length < ys.length) {
+            throw new IllegalArgumentException("Массив короче количества точек");
+        }
+        System.arraycopy(ys, 0, out, 0, ys.length);
+    }
+
+    public int getPointsCount() {
+        return xs.length;
+    }
+
+    // Проверка границ индекса
+    private void checkIndex(int index) {
+        if (index < 0 || index >= xs.length) {
+            throw new FunctionPointIndexOutOfBoundsException("Некорректный индекс точки: " + index);
+        }
+    }
+
+    public FunctionPoint getPoint(int index) {
+        checkIndex(index);
+        return new FunctionPoint(xs[index], ys[index]);
+    }
+
+    public double getPointX(int index) {
+        checkIndex(index);
+        return xs[index];
+    }
+
+    public double getPointY(int index) {
+        checkIndex(index);
+        return ys[index];
+    }
+
+    public void setPoint(int index, FunctionPoint point) {
+        throw new UnsupportedOperationException("Неизменяемая функция");
+    }
+
+    public void setPointX(int index, double x) {
+        throw new UnsupportedOperationException("Неизменяемая функция");
+    }
+
+    public void setPointY(int index, double y) {
+        throw new UnsupportedOperationException("Неизменяемая функция");
+    }
+
+    public void deletePoint(int index) {
+        throw new UnsupportedOperationException("Неизменяемая функция");
+    }
+
+    public void addPoint(FunctionPoint point) {
+        throw new UnsupportedOperationException("Неизменяемая функция");
+    }
+}
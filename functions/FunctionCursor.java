@@ -0,0 +1,10 @@
+package functions;
+
+// Курсор вычисления значений табулированной функции.
+// Запоминает интервал, на котором было последнее вычисление, и ищет следующий интервал
+// от него, поэтому последовательность монотонных аргументов обрабатывается за O(1) на запрос.
+// Курсор не потокобезопасен: каждый поток должен получать собственный курсор.
+public interface FunctionCursor {
+    // Значение функции в точке x (NaN вне области определения)
+    double getFunctionValue(double x);
+}
@@ -0,0 +1,305 @@
+package functions;
+
+// Ленивое выражение над табулированными функциями, например a * f(x) + g(x) - h(x).
+// Выражение только запоминает операции и вычисляется при запросе значений, не создавая
+// промежуточных таблиц. Пакетное вычисление выполняется за один проход: для каждого
+// аргумента интервал в каждой функции-листе ищется один раз (через её курсор, поэтому
+// упорядоченные аргументы обрабатываются без повторных поисков), после чего значения
+// сразу объединяются по операциям выражения на небольшом стеке.
+// Объект неизменяем; функции-листы не копируются, и их изменения видны при следующем вычислении.
+// Область определения - пересечение областей определения листов, вне её значение NaN.
+public final class FunctionExpression {
+    // Виды узлов
+    private static final int LEAF = 0;
+    private static final int CONSTANT = 1;
+    private static final int ADD = 2;
+    private static final int SUBTRACT = 3;
+    private static final int MULTIPLY = 4;
+    private static final int DIVIDE = 5;
+
+    private final int kind;
+    private final TabulatedFunction function;
+    private final double constant;
+    private final FunctionExpression left;
+    private final FunctionExpression right;
+
+    // Количество узлов выражения и размер стека, нужный для его вычисления. Считаются при
+    // построении узла, чтобы компиляция длинных цепочек операций обходилась без рекурсии
+    private final int size;
+    private final int depth;
+
+    // Скомпилированная программа (строится при первом вычислении; объект неизменяем,
+    // поэтому гонка при его публикации приводит лишь к повторной компиляции)
+    private Program program;
+
+    private FunctionExpression(int kind, TabulatedFunction function, double constant,
+                               FunctionExpression left, FunctionExpression right) {
+        this.kind = kind;
+        this.function = function;
+        this.constant = constant;
+        this.left = left;
+        this.right = right;
+        if (left == null) {
+            this.size = 1;
+            this.depth = 1;
+        } else {
+            this.size = 1 + left.size + right.size;
+            this.depth = Math.max(left.depth, right.depth + 1);
+        }
+    }
+
+    // Выражение из одной функции
+    public static FunctionExpression of(TabulatedFunction function) {
+        if (function == null) {
+            throw new IllegalArgumentException("Функция не задана");
+        }
+        return new FunctionExpression(LEAF, function, 0, null, null);
+    }
+
+    // Постоянное выражение
+    public static FunctionExpression constant(double value) {
+        return new FunctionExpression(CONSTANT, null, value, null, null);
+    }
+
+    private FunctionExpression operation(int kind, FunctionExpression other) {
+        if (other == null) {
+            throw new IllegalArgumentException("Выражение не задано");
+        }
+        return new FunctionExpression(kind, null, 0, this, other);
+    }
+
+    public FunctionExpression plus(FunctionExpression other) {
+        return operation(ADD, other);
+    }
+
+    public FunctionExpression plus(double value) {
+        return operation(ADD, constant(value));
+    }
+
+    public FunctionExpression minus(FunctionExpression other) {
+        return operation(SUBTRACT, other);
+    }
+
+    public FunctionExpression minus(double value) {
+        return operation(SUBTRACT, constant(value));
+    }
+
+    public FunctionExpression times(FunctionExpression other) {
+        return operation(MULTIPLY, other);
+    }
+
+    public FunctionExpression times(double value) {
+        return operation(MULTIPLY, constant(value));
+    }
+
+    public FunctionExpression dividedBy(FunctionExpression other) {
+        return operation(DIVIDE, other);
+    }
+
+    // Левая граница области определения (-бесконечность для выражения без функций)
+    public double getLeftDomainBorder() {
+        TabulatedFunction[] leaves = program().leaves;
+        double border = Double.NEGATIVE_INFINITY;
+        for (TabulatedFunction leaf : leaves) {
+            border = Math.max(border, leaf.getLeftDomainBorder());
+        }
+        return border;
+    }
+
+    // Правая граница области определения (+бесконечность для выражения без функций)
+    public double getRightDomainBorder() {
+        TabulatedFunction[] leaves = program().leaves;
+        double border = Double.POSITIVE_INFINITY;
+        for (TabulatedFunction leaf : leaves) {
+            border = Math.min(border, leaf.getRightDomainBorder());
+        }
+        return border;
+    }
+
+    // Значение выражения в точке x (рабочие массивы берутся из запаса текущего потока)
+    public double getFunctionValue(double x) {
+        Program program = program();
+        Scratch scratch = program.scratch.get();
+        double[] values = scratch.values;
+        for (int l = 0; l < values.length; l++) {
+            values[l] = program.leaves[l].getFunctionValue(x);
+        }
+        return program.execute(values, scratch.stack);
+    }
+
+    // Значения выражения для массива аргументов xs (результат в out) за один проход
+    public void getFunctionValues(double[] xs, double[] out) {
+        if (out.length < xs.length) {
+            throw new IllegalArgumentException("Массив результатов короче массива аргументов");
+        }
+        Program program = program();
+        int leafCount = program.leaves.length;
+        FunctionCursor[] cursors = new FunctionCursor[leafCount];
+        for (int l = 0; l < leafCount; l++) {
+            cursors[l] = program.leaves[l].cursor();
+        }
+        double[] values = new double[leafCount];
+        double[] stack = new double[program.maxStack];
+        for (int q = 0; q < xs.length; q++) {
+            double x = xs[q];
+            for (int l = 0; l < leafCount; l++) {
+                values[l] = cursors[l].getFunctionValue(x);
+            }
+            out[q] = program.execute(values, stack);
+        }
+    }
+
+    // Табулирование выражения на сетке абсцисс grid (строго возрастающих, внутри области определения)
+    public DoubleArrayTabulatedFunction materialize(double[] grid) {
+        if (grid.length < 2) {
+            throw new IllegalArgumentException("Количество точек должно быть не менее двух");
+        }
+        if (!(grid[0] >= getLeftDomainBorder()) || !(grid[grid.length - 1] <= getRightDomainBorder())) {
+            throw new IllegalArgumentException("Сетка выходит за область определения выражения");
+        }
+        double[] xs = new double[grid.length];
+        double[] ys = new double[grid.length];
+        System.arraycopy(grid, 0, xs, 0, grid.length);
+        getFunctionValues(xs, ys);
+        return new DoubleArrayTabulatedFunction(xs, ys, grid.length);
+    }
+
+    // Табулирование выражения на равномерной сетке из pointsCount точек на [leftX, rightX]
+    public DoubleArrayTabulatedFunction materialize(double leftX, double rightX, int pointsCount) {
+        if (pointsCount < 2) {
+            throw new IllegalArgumentException("Количество точек должно быть не менее двух");
+        }
+        if (leftX >= rightX) {
+            throw new IllegalArgumentException("Левая граница области определения больше или равна правой");
+        }
+        double[] grid = new double[pointsCount];
+        double step = (rightX - leftX) / (pointsCount - 1);
+        for (int i = 0; i < pointsCount - 1; i++) {
+            grid[i] = leftX + i * step;
+        }
+        grid[pointsCount - 1] = rightX;
+        return materialize(grid);
+    }
+
+    private Program program() {
+        Program current = program;
+        if (current == null) {
+            current = new Program(this);
+            program = current;
+        }
+        return current;
+    }
+
+    // Рабочие массивы вычисления в одной точке: значения листов и стек
+    private static final class Scratch {
+        final double[] values;
+        final double[] stack;
+
+        Scratch(int leafCount, int maxStack) {
+            values = new double[leafCount];
+            stack = new double[maxStack];
+        }
+    }
+
+    // Выражение в обратной польской записи: коды операций, аргументы (номер листа или номер константы)
+    // и различные функции-листы (одна и та же функция, входящая несколько раз, вычисляется один раз)
+    private static final class Program {
+        final int[] codes;
+        final int[] arguments;
+        final double[] constants;
+        final TabulatedFunction[] leaves;
+        final int maxStack;
+
+        // Рабочие массивы getFunctionValue, свои у каждого потока
+        final ThreadLocal<Scratch> scratch;
+
+        // Состояние компиляции: найденные листы и количество констант
+        private TabulatedFunction[] found;
+        private int constantCount;
+        private int leafCount;
+
+        Program(FunctionExpression root) {
+            int size = root.size;
+            codes = new int[size];
+            arguments = new int[size];
+            constants = new double[size];
+            found = new TabulatedFunction[size];
+            maxStack = root.depth;
+            emit(root);
+            leaves = new TabulatedFunction[leafCount];
+            System.arraycopy(found, 0, leaves, 0, leafCount);
+            found = null;
+            scratch = ThreadLocal.withInitial(() -> new Scratch(leaves.length, maxStack));
+        }
+
+        // Запись узлов в обратной польской записи без рекурсии: узлы снимаются с явного стека
+        // в порядке "узел, правое поддерево, левое поддерево", то есть в обратном порядке
+        // записи, поэтому программа заполняется с конца
+        private void emit(FunctionExpression root) {
+            FunctionExpression[] pending = new FunctionExpression[root.size];
+            int top = 0;
+            pending[top++] = root;
+            int position = codes.length;
+            while (top > 0) {
+                FunctionExpression node = pending[--top];
+                position--;
+                codes[position] = node.kind;
+                switch (node.kind) {
+                    case LEAF:
+                        arguments[position] = leafIndex(node.function);
+                        break;
+                    case CONSTANT:
+                        constants[constantCount] = node.constant;
+                        arguments[position] = constantCount++;
+                        break;
+                    default:
+                        pending[top++] = node.left;
+                        pending[top++] = node.right;
+                        break;
+                }
+            }
+        }
+
+        private int leafIndex(TabulatedFunction function) {
+            for (int l = 0; l < leafCount; l++) {
+                if (found[l] == function) {
+                    return l;
+                }
+            }
+            found[leafCount] = function;
+            return leafCount++;
+        }
+
+        // Вычисление по значениям листов в текущей точке
+        double execute(double[] values, double[] stack) {
+            int top = 0;
+            for (int pc = 0; pc < codes.length; pc++) {
+                switch (codes[pc]) {
+                    case LEAF:
+                        stack[top++] = values[arguments[pc]];
+                        break;
+                    case CONSTANT:
+                        stack[top++] = constants[arguments[pc]];
+                        break;
+                    case ADD:
+                        top--;
+                        stack[top - 1] += stack[top];
+                        break;
+                    case SUBTRACT:
+                        top--;
+                        stack[top - 1] -= stack[top];
+                        break;
+                    case MULTIPLY:
+                        top--;
+                        stack[top - 1] *= stack[top];
+                        break;
+                    default:
+                        top--;
+                        stack[top - 1] /= stack[top];
+                        break;
+                }
+            }
+            return stack[0];
+        }
+    }
+}
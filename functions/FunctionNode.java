@@ -9,6 +9,19 @@ class FunctionNode {
     public FunctionNode prev;
     public FunctionNode next;
     
+    // Экспресс-полосы списка с пропусками: ссылки вперёд на уровнях 1, 2, ...
+    // (элемент k - уровень k + 1) и длины пропусков в элементах основного списка.
+    // У большинства элементов экспресс-полос нет и массивы равны null
+    FunctionNode[] skipNext;
+    int[] skipSpan;
+    
+    // Номер элемента, записанный при последнем обращении к нему по номеру
+    // (верен, пока элемент остаётся последним найденным, см. LinkedListTabulatedFunction)
+    int index;
+    
+    // Наклон интервала от этого элемента до следующего (NaN - не вычислен или устарел)
+    double slope = Double.NaN;
+    
     // Конструктор по умолчанию
     public FunctionNode() {
         this.point = null;
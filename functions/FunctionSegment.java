@@ -0,0 +1,52 @@
+package functions;
+
+// Интервал табулированной функции между двумя соседними точками (неизменяемый).
+// На интервале функция линейна: значение, наклон и площадь под ним вычисляются по концам
+public final class FunctionSegment {
+    private final double leftX;
+    private final double leftY;
+    private final double rightX;
+    private final double rightY;
+
+    // Наклон вычисляется один раз: интервал неизменяем
+    private final double slope;
+
+    public FunctionSegment(double leftX, double leftY, double rightX, double rightY) {
+        this.leftX = leftX;
+        this.leftY = leftY;
+        this.rightX = rightX;
+        this.rightY = rightY;
+        this.slope = SegmentInterpolation.slope(leftX, leftY, rightX, rightY);
+    }
+
+    public double getLeftX() {
+        return leftX;
+    }
+
+    public double getLeftY() {
+        return leftY;
+    }
+
+    public double getRightX() {
+        return rightX;
+    }
+
+    public double getRightY() {
+        return rightY;
+    }
+
+    // Наклон интервала
+    public double getSlope() {
+        return slope;
+    }
+
+    // Значение линейной интерполяции в точке x (вне интервала - продолжение прямой)
+    public double getFunctionValue(double x) {
+        return SegmentInterpolation.value(leftX, leftY, slope, x);
+    }
+
+    // Площадь трапеции под интервалом (со знаком)
+    public double getArea() {
+        return SegmentAreaTree.trapezoid(leftX, leftY, rightX, rightY);
+    }
+}
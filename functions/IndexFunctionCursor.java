@@ -0,0 +1,72 @@
+package functions;
+
+// Курсор для функций с быстрым доступом к точкам по номеру
+class IndexFunctionCursor implements FunctionCursor {
+    // Число шагов от текущего интервала, после которого выполняется двоичный поиск
+    private static final int MAX_WALK_STEPS = 4;
+    private static final double EPSILON = 1e-10;
+    
+    private final TabulatedFunction function;
+    
+    // Номер левой точки текущего интервала
+    private int segment;
+    
+    IndexFunctionCursor(TabulatedFunction function) {
+        this.function = function;
+        this.segment = 0;
+    }
+    
+    public double getFunctionValue(double x) {
+        int pointsCount = function.getPointsCount();
+        if (pointsCount == 0 || x < function.getPointX(0) || x > function.getPointX(pointsCount - 1)) {
+            return Double.NaN;
+        }
+        if (pointsCount == 1) {
+            return function.getPointY(0);
+        }
+        
+        // Функция могла измениться с прошлого вызова
+        int i = Math.min(segment, pointsCount - 2);
+        
+        // Сдвиг от текущего интервала, при большом расстоянии - двоичный поиск
+        int steps = 0;
+        while (i < pointsCount - 2 && x > function.getPointX(i + 1) && steps < MAX_WALK_STEPS) {
+            i++;
+            steps++;
+        }
+        while (i > 0 && x < function.getPointX(i) && steps < MAX_WALK_STEPS) {
+            i--;
+            steps++;
+        }
+        if (steps == MAX_WALK_STEPS) {
+            i = findSegmentIndex(x, pointsCount);
+        }
+        segment = i;
+        
+        double leftX = function.getPointX(i);
+        double rightX = function.getPointX(i + 1);
+        if (Math.abs(x - leftX) < EPSILON) {
+            return function.getPointY(i);
+        }
+        if (Math.abs(x - rightX) < EPSILON) {
+            return function.getPointY(i + 1);
+        }
+        double leftY = function.getPointY(i);
+        return leftY + (function.getPointY(i + 1) - leftY) * (x - leftX) / (rightX - leftX);
+    }
+    
+    // Двоичный поиск интервала по всему набору точек
+    private int findSegmentIndex(double x, int pointsCount) {
+        int low = 0;
+        int high = pointsCount - 1;
+        while (high - low > 1) {
+            int middle = (low + high) >>> 1;
+            if (function.getPointX(middle) <= x) {
+                low = middle;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+}
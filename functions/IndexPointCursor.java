@@ -0,0 +1,38 @@
+package functions;
+
+// Курсор обхода точек для функций с быстрым доступом к точкам по номеру
+class IndexPointCursor implements PointCursor {
+    private final TabulatedFunction function;
+    
+    // Номер текущей точки (-1 - перед первой)
+    private int index = -1;
+    
+    IndexPointCursor(TabulatedFunction function) {
+        this.function = function;
+    }
+    
+    public boolean next() {
+        if (index + 1 >= function.getPointsCount()) {
+            index = function.getPointsCount();
+            return false;
+        }
+        index++;
+        return true;
+    }
+    
+    public double getX() {
+        return function.getPointX(index);
+    }
+    
+    public double getY() {
+        return function.getPointY(index);
+    }
+    
+    public int getIndex() {
+        return index;
+    }
+    
+    public void reset() {
+        index = -1;
+    }
+}
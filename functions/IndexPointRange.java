@@ -0,0 +1,29 @@
+package functions;
+
+// Диапазон точек для функций с быстрым доступом к точкам по номеру
+class IndexPointRange extends PointRange {
+    private final TabulatedFunction function;
+
+    IndexPointRange(TabulatedFunction function, int index, int fence) {
+        super(index, fence);
+        this.function = function;
+    }
+
+    double x() {
+        return function.getPointX(index);
+    }
+
+    double y() {
+        return function.getPointY(index);
+    }
+
+    void advance() {
+        index++;
+    }
+
+    PointRange split(int middle, int prefixFence) {
+        PointRange prefix = new IndexPointRange(function, index, prefixFence);
+        index = middle;
+        return prefix;
+    }
+}
@@ -0,0 +1,248 @@
+package functions;
+
+import java.lang.management.ManagementFactory;
+import java.util.Spliterator;
+import java.util.concurrent.ThreadLocalRandom;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+// Табулированная функция-обёртка, собирающая метрики использования другой функции:
+// количество вычислений значений и доля результатов NaN (аргумент вне области определения),
+// обращения к точкам, изменения точек, гистограммы длительностей.
+// Все вызовы передаются обёрнутой функции; обёртка потокобезопасна ровно настолько же, насколько она.
+// Длительность вычисления значения измеряется в среднем у одного из sampleInterval вызовов
+// (вызов выбирается случайно), чтобы замер времени не стоил дороже самого вычисления;
+// изменения точек измеряются всегда.
+// Метрики доступны через getMetrics() и могут быть опубликованы в JMX методом registerMBean.
+public class InstrumentedTabulatedFunction implements TabulatedFunction {
+    // Интервал выборки длительностей вычисления значения по умолчанию
+    public static final int DEFAULT_SAMPLE_INTERVAL = 16;
+
+    private final TabulatedFunction function;
+    private final TabulatedFunctionMetrics metrics;
+    private final int sampleMask;
+
+    public InstrumentedTabulatedFunction(TabulatedFunction function) {
+        this(function, DEFAULT_SAMPLE_INTERVAL);
+    }
+
+    // Конструктор с интервалом выборки длительностей (степень двойки; 1 - измерять каждый вызов)
+    public InstrumentedTabulatedFunction(TabulatedFunction function, int sampleInterval) {
+        if (function == null) {
+            throw new IllegalArgumentException("Функция не задана");
+        }
+        if (sampleInterval < 1 || Integer.bitCount(sampleInterval) != 1) {
+            throw new IllegalArgumentException("Интервал выборки должен быть степенью двойки");
+        }
+        this.function = function;
+        this.metrics = new TabulatedFunctionMetrics(function);
+        this.sampleMask = sampleInterval - 1;
+    }
+
+    // Обёрнутая функция
+    public TabulatedFunction getFunction() {
+        return function;
+    }
+
+    public TabulatedFunctionMetrics getMetrics() {
+        return metrics;
+    }
+
+    // Регистрация метрик в платформенном сервере JMX под именем
+    // functions:type=TabulatedFunction,name=<name>
+    public ObjectName registerMBean(String name) throws JMException {
+        ObjectName objectName = new ObjectName("functions:type=TabulatedFunction,name=" + ObjectName.quote(name));
+        ManagementFactory.getPlatformMBeanServer().registerMBean(metrics, objectName);
+        return objectName;
+    }
+
+    public double getLeftDomainBorder() {
+        return function.getLeftDomainBorder();
+    }
+
+    public double getRightDomainBorder() {
+        return function.getRightDomainBorder();
+    }
+
+    public double getFunctionValue(double x) {
+        metrics.lookups.increment();
+        double value;
+        // Выборка по генератору своего потока: общий счётчик вызовов пришлось бы
+        // изменять из всех читающих потоков
+        if ((ThreadLocalRandom.current().nextInt() & sampleMask) == 0) {
+            long start = System.nanoTime();
+            value = function.getFunctionValue(x);
+            metrics.lookupLatency.record(System.nanoTime() - start);
+        } else {
+            value = function.getFunctionValue(x);
+        }
+        if (Double.isNaN(value)) {
+            metrics.outOfDomain.increment();
+        }
+        return value;
+    }
+
+    public void getFunctionValues(double[] xs, int offset, int length, double[] out) {
+        function.getFunctionValues(xs, offset, length, out);
+        int nanCount = 0;
+        for (int i = offset; i < offset + length; i++) {
+            if (Double.isNaN(out[i])) {
+                nanCount++;
+            }
+        }
+        metrics.lookups.add(length);
+        metrics.outOfDomain.add(nanCount);
+    }
+
+    public double integral(double a, double b) {
+        return function.integral(a, b);
+    }
+
+    public FunctionCursor cursor() {
+        FunctionCursor cursor = function.cursor();
+        return x -> {
+            double value = cursor.getFunctionValue(x);
+            metrics.lookups.increment();
+            if (Double.isNaN(value)) {
+                metrics.outOfDomain.increment();
+            }
+            return value;
+        };
+    }
+
+    public FrozenTabulatedFunction freeze() {
+        return function.freeze();
+    }
+
+    public void forEachPoint(PointVisitor visitor) {
+        metrics.pointReads.add(function.getPointsCount());
+        function.forEachPoint(visitor);
+    }
+
+    public PointCursor pointCursor() {
+        return function.pointCursor();
+    }
+
+    public void copyXs(double[] out) {
+        metrics.pointReads.add(function.getPointsCount());
+        function.copyXs(out);
+    }
+
+    public void copyYs(double[] out) {
+        metrics.pointReads.add(function.getPointsCount());
+        function.copyYs(out);
+    }
+
+    // Чтения через разделяемые итераторы ленивы и в метриках не учитываются
+    public Spliterator<FunctionPoint> pointSpliterator() {
+        return function.pointSpliterator();
+    }
+
+    public Spliterator<FunctionSegment> segmentSpliterator() {
+        return function.segmentSpliterator();
+    }
+
+    public Spliterator.OfDouble xSpliterator() {
+        return function.xSpliterator();
+    }
+
+    public Spliterator.OfDouble ySpliterator() {
+        return function.ySpliterator();
+    }
+
+    public int getPointsCount() {
+        return function.getPointsCount();
+    }
+
+    public FunctionPoint getPoint(int index) {
+        metrics.pointReads.increment();
+        return function.getPoint(index);
+    }
+
+    public double getPointX(int index) {
+        metrics.pointReads.increment();
+        return function.getPointX(index);
+    }
+
+    public double getPointY(int index) {
+        metrics.pointReads.increment();
+        return function.getPointY(index);
+    }
+
+    // Учёт завершения изменения точки, начатого в момент start
+    private void mutationFinished(long start, boolean succeeded) {
+        metrics.mutationLatency.record(System.nanoTime() - start);
+        if (succeeded) {
+            metrics.mutations.increment();
+        } else {
+            metrics.failedMutations.increment();
+        }
+    }
+
+    public void setPoint(int index, FunctionPoint point) throws InappropriateFunctionPointException {
+        long start = System.nanoTime();
+        boolean succeeded = false;
+        try {
+            function.setPoint(index, point);
+            succeeded = true;
+        } finally {
+            mutationFinished(start, succeeded);
+        }
+    }
+
+    public void setPointX(int index, double x) throws InappropriateFunctionPointException {
+        long start = System.nanoTime();
+        boolean succeeded = false;
+        try {
+            function.setPointX(index, x);
+            succeeded = true;
+        } finally {
+            mutationFinished(start, succeeded);
+        }
+    }
+
+    public void setPointY(int index, double y) {
+        long start = System.nanoTime();
+        boolean succeeded = false;
+        try {
+            function.setPointY(index, y);
+            succeeded = true;
+        } finally {
+            mutationFinished(start, succeeded);
+        }
+    }
+
+    public void deletePoint(int index) {
+        long start = System.nanoTime();
+        boolean succeeded = false;
+        try {
+            function.deletePoint(index);
+            succeeded = true;
+        } finally {
+            mutationFinished(start, succeeded);
+        }
+    }
+
+    public void addPoint(FunctionPoint point) throws InappropriateFunctionPointException {
+        long start = System.nanoTime();
+        boolean succeeded = false;
+        try {
+            function.addPoint(point);
+            succeeded = true;
+        } finally {
+            mutationFinished(start, succeeded);
+        }
+    }
+
+    public void retainPoints(boolean[] keep) {
+        long start = System.nanoTime();
+        boolean succeeded = false;
+        try {
+            function.retainPoints(keep);
+            succeeded = true;
+        } finally {
+            mutationFinished(start, succeeded);
+        }
+    }
+}
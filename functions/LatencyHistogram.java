@@ -0,0 +1,87 @@
+package functions;
+
+import java.util.concurrent.atomic.LongAdder;
+
+// Гистограмма длительностей операций в наносекундах.
+// Корзины имеют границы - степени двойки: в корзину k попадают длительности из [2^(k-1), 2^k),
+// в корзину 0 - нулевые. Запись - одно увеличение счётчика LongAdder без блокировок,
+// поэтому гистограмму можно пополнять из многих потоков. Квантили оцениваются
+// верхней границей корзины, то есть с точностью до множителя 2.
+public final class LatencyHistogram {
+    private static final int BUCKET_COUNT = 64;
+
+    private final LongAdder[] buckets = new LongAdder[BUCKET_COUNT];
+    private final LongAdder totalNanos = new LongAdder();
+
+    public LatencyHistogram() {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    // Учёт одной длительности (отрицательные считаются нулевыми)
+    public void record(long nanos) {
+        if (nanos < 0) {
+            nanos = 0;
+        }
+        buckets[BUCKET_COUNT - Long.numberOfLeadingZeros(nanos)].increment();
+        totalNanos.add(nanos);
+    }
+
+    // Количество учтённых длительностей
+    public long getCount() {
+        long count = 0;
+        for (LongAdder bucket : buckets) {
+            count += bucket.sum();
+        }
+        return count;
+    }
+
+    // Средняя длительность (0, если длительностей нет)
+    public double getMeanNanos() {
+        long count = getCount();
+        return count == 0 ? 0 : (double) totalNanos.sum() / count;
+    }
+
+    // Оценка квантиля q (0 < q <= 1) сверху: верхняя граница корзины, в которой он находится
+    public long getQuantileNanos(double q) {
+        if (!(q > 0 && q <= 1)) {
+            throw new IllegalArgumentException("Уровень квантиля должен лежать в (0, 1]");
+        }
+        long[] counts = getBucketCounts();
+        long count = 0;
+        for (long bucketCount : counts) {
+            count += bucketCount;
+        }
+        if (count == 0) {
+            return 0;
+        }
+
+        long rank = (long) Math.ceil(q * count);
+        long seen = 0;
+        for (int k = 0; k < BUCKET_COUNT; k++) {
+            seen += counts[k];
+            if (seen >= rank) {
+                return k == 0 ? 0 : (k == BUCKET_COUNT - 1 ? Long.MAX_VALUE : (1L << k) - 1);
+            }
+        }
+        return Long.MAX_VALUE;
+    }
+
+    // Снимок количеств по корзинам (элемент k - длительности из [2^(k-1), 2^k))
+    public long[] getBucketCounts() {
+        long[] counts = new long[BUCKET_COUNT];
+        for (int k = 0; k < BUCKET_COUNT; k++) {
+            counts[k] = buckets[k].sum();
+        }
+        return counts;
+    }
+
+    // Обнуление гистограммы (одновременные записи могут частично сохраниться)
+    public void reset() {
+        for (LongAdder bucket : buckets) {
+            bucket.reset();
+        }
+        totalNanos.reset();
+    }
+}
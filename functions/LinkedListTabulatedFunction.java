@@ -1,5 +1,10 @@
 package functions;
 
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Spliterator;
+import java.util.concurrent.atomic.LongAdder;
+
 public class LinkedListTabulatedFunction implements TabulatedFunction{
     // Голова списка (не содержит данных, всегда существует)
     private FunctionNode head;
@@ -7,22 +12,71 @@ public class LinkedListTabulatedFunction implements TabulatedFunction{
     // Количество значащих элементов (без головы)
     private int pointsCount;
     
-    // Вспомогательные поля для оптимизации доступа
-    private FunctionNode lastAccessedNode;
-    private int lastAccessedIndex;
+    // Вспомогательное поле для оптимизации доступа: последний узел (его номер хранится в самом узле).
+    // Читатель записывает номер в узел до публикации узла (setRelease), а другой читатель
+    // получает узел через getAcquire и видит этот номер. Все читатели записывают в узел один
+    // и тот же, действительный номер, поэтому обращение из нескольких потоков не создаёт объектов
+    private FunctionNode lastAccessed;
+    
+    private static final VarHandle LAST_ACCESSED;
+    
+    static {
+        try {
+            LAST_ACCESSED = MethodHandles.lookup()
+                    .findVarHandle(LinkedListTabulatedFunction.class, "lastAccessed", FunctionNode.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+    
+    // Статистика обращений по номеру (null - не собирается, см. setCacheStatisticsEnabled)
+    private CacheStatistics cacheStatistics;
+    
+    // Попадания в тот же узел, в соседний узел и спуски по экспресс-полосам
+    private static final class CacheStatistics {
+        final LongAdder hits = new LongAdder();
+        final LongAdder neighborHits = new LongAdder();
+        final LongAdder misses = new LongAdder();
+    }
     
     // Константа для сравнения вещественных чисел
     private static final double EPSILON = 1e-10;
     
+    // Список с пропусками: максимальное и текущее число экспресс-уровней над основным списком.
+    // Номер элемента в списке с пропусками - его ранг: у головы ранг 0, у элемента i - ранг i + 1
+    private static final int MAX_SKIP_LEVEL = 16;
+    private int skipLevel;
+    
+    // Состояние генератора случайных уровней (xorshift)
+    private int randomState = 0x2545F491;
+    
+    // Рабочие массивы изменяющих операций: предшественники позиции на каждом уровне и их ранги
+    private final FunctionNode[] skipUpdate = new FunctionNode[MAX_SKIP_LEVEL];
+    private final int[] skipRank = new int[MAX_SKIP_LEVEL];
+    private int skipBaseRank;
+    
+    // Счётчик структурных изменений (вставок и удалений узлов) для курсоров
+    private int modCount;
+    
+    // Признак использования наклонов интервалов, хранящихся в узлах (см. setSegmentCoefficientsEnabled)
+    private boolean segmentCoefficients;
+    
+    // Индекс площадей интервалов для вычисления интегралов (null - не построен или устарел).
+    // Строится и при чтении, поэтому публикуется через volatile
+    private volatile SegmentAreaTree areaIndex;
+    
     // Конструктор по умолчанию (пустой список)
     public LinkedListTabulatedFunction() {
         // Создаем голову, которая ссылается сама на себя
         head = new FunctionNode();
         head.prev = head;
         head.next = head;
+        head.skipNext = new FunctionNode[MAX_SKIP_LEVEL];
+        head.skipSpan = new int[MAX_SKIP_LEVEL];
+        head.index = -1;
+        skipLevel = 0;
         pointsCount = 0;
-        lastAccessedNode = head;
-        lastAccessedIndex = -1;
+        lastAccessed = head;
     }
     
     // Конструктор с параметрами (равномерная сетка)
@@ -65,6 +119,70 @@ public class LinkedListTabulatedFunction implements TabulatedFunction{
         }
     }
     
+    // Включение и выключение статистики обращений по номеру. По умолчанию статистика
+    // не собирается, чтобы обращения к точкам не платили за счётчики; выключение сбрасывает её
+    public void setCacheStatisticsEnabled(boolean enabled) {
+        if (!enabled) {
+            cacheStatistics = null;
+        } else if (cacheStatistics == null) {
+            cacheStatistics = new CacheStatistics();
+        }
+    }
+    
+    public boolean isCacheStatisticsEnabled() {
+        return cacheStatistics != null;
+    }
+    
+    // Количество обращений по номеру, попавших в последний найденный узел
+    public long getCacheHitCount() {
+        CacheStatistics statistics = cacheStatistics;
+        return statistics == null ? 0 : statistics.hits.sum();
+    }
+    
+    // Количество обращений по номеру к соседу последнего найденного узла
+    public long getCacheNeighborHitCount() {
+        CacheStatistics statistics = cacheStatistics;
+        return statistics == null ? 0 : statistics.neighborHits.sum();
+    }
+    
+    // Количество обращений по номеру, потребовавших спуска по экспресс-полосам
+    public long getCacheMissCount() {
+        CacheStatistics statistics = cacheStatistics;
+        return statistics == null ? 0 : statistics.misses.sum();
+    }
+    
+    // Включение и выключение кэша наклонов интервалов. С включённым кэшем значение на интервале
+    // вычисляется без деления; наклон хранится в левом узле интервала, вычисляется при первом
+    // обращении и сбрасывается изменяющими методами только у затронутых узлов
+    public void setSegmentCoefficientsEnabled(boolean enabled) {
+        segmentCoefficients = enabled;
+    }
+    
+    public boolean isSegmentCoefficientsEnabled() {
+        return segmentCoefficients;
+    }
+    
+    // Значение на интервале от узла node до следующего; наклон кэшируется в самом узле
+    // (NaN после изменения интервала), так что отдельный массив наклонов не нужен
+    private double segmentValue(FunctionNode node, double x) {
+        FunctionNode next = node.next;
+        if (!segmentCoefficients) {
+            return linearInterpolation(node.point, next.point, x);
+        }
+        double slope = node.slope;
+        if (slope != slope) {
+            slope = SegmentInterpolation.slope(node.point.getX(), node.point.getY(), next.point.getX(), next.point.getY());
+            node.slope = slope;
+        }
+        return SegmentInterpolation.value(node.point.getX(), node.point.getY(), slope, x);
+    }
+    
+    // Сброс наклонов обоих интервалов, концом которых служит узел node
+    private static void invalidateSegments(FunctionNode node) {
+        node.slope = Double.NaN;
+        node.prev.slope = Double.NaN;
+    }
+    
     // Метод для получения узла по индексу с оптимизацией доступа
     private FunctionNode getNodeByIndex(int index) {
         // Проверка корректности индекса
@@ -72,68 +190,73 @@ public class LinkedListTabulatedFunction implements TabulatedFunction{
             throw new FunctionPointIndexOutOfBoundsException("Некорректный индекс: " + index);
         }
         
+        // Поле и номер читаются один раз: дальше работаем с согласованной парой
+        FunctionNode cached = (FunctionNode) LAST_ACCESSED.getAcquire(this);
+        int cachedIndex = cached.index;
+        CacheStatistics statistics = cacheStatistics;
+        
         // Оптимизация: если запрашиваем тот же элемент, что и в прошлый раз
-        if (lastAccessedIndex == index) {
-            return lastAccessedNode;
+        if (cachedIndex == index) {
+            if (statistics != null) {
+                statistics.hits.increment();
+            }
+            return cached;
         }
         
         // Оптимизация: если запрашиваем следующий элемент
-        if (lastAccessedIndex != -1 && lastAccessedIndex == index - 1) {
-            lastAccessedNode = lastAccessedNode.next;
-            lastAccessedIndex = index;
-            return lastAccessedNode;
-        }
-        
-        // Оптимизация: если запрашиваем предыдущий элемент
-        if (lastAccessedIndex != -1 && lastAccessedIndex == index + 1) {
-            lastAccessedNode = lastAccessedNode.prev;
-            lastAccessedIndex = index;
-            return lastAccessedNode;
-        }
-        
-        // Поиск с ближайшего конца
-        FunctionNode current;
-        int currentIndex;
-        
-        if (index < pointsCount / 2) {
-            // Ищем с начала
-            current = head.next;
-            currentIndex = 0;
-            while (currentIndex < index) {
-                current = current.next;
-                currentIndex++;
+        FunctionNode node;
+        if (cachedIndex != -1 && cachedIndex == index - 1) {
+            node = cached.next;
+            if (statistics != null) {
+                statistics.neighborHits.increment();
+            }
+        } else if (cachedIndex != -1 && cachedIndex == index + 1) {
+            // Оптимизация: если запрашиваем предыдущий элемент
+            node = cached.prev;
+            if (statistics != null) {
+                statistics.neighborHits.increment();
             }
         } else {
-            // Ищем с конца
-            current = head.prev;
-            currentIndex = pointsCount - 1;
-            while (currentIndex > index) {
-                current = current.prev;
-                currentIndex--;
+            // Поиск по экспресс-полосам за O(log n)
+            if (statistics != null) {
+                statistics.misses.increment();
             }
+            node = findNodeByRank(index + 1);
         }
         
-        // Сохраняем для будущей оптимизации
-        lastAccessedNode = current;
-        lastAccessedIndex = index;
+        // Сохраняем для будущей оптимизации: номер записывается до публикации узла
+        node.index = index;
+        LAST_ACCESSED.setRelease(this, node);
         
+        return node;
+    }
+    
+    // Поиск узла с порядковым номером targetRank (с единицы) по экспресс-полосам за O(log n).
+    // Только читает список и не трогает кэш доступа, поэтому годится для нескольких потоков сразу
+    private FunctionNode findNodeByRank(int targetRank) {
+        FunctionNode current = head;
+        int rank = 0;
+        for (int level = skipLevel - 1; level >= 0; level--) {
+            while (current.skipNext[level] != null && rank + current.skipSpan[level] <= targetRank) {
+                rank += current.skipSpan[level];
+                current = current.skipNext[level];
+            }
+        }
+        while (rank < targetRank) {
+            current = current.next;
+            rank++;
+        }
         return current;
     }
     
     // Метод для добавления узла в конец списка
     private FunctionNode addNodeToTail() {
-        FunctionNode newNode = new FunctionNode();
+        // Вставляем после последнего элемента (перед головой)
+        FunctionNode prevNode = findPredecessors(pointsCount + 1);
+        FunctionNode newNode = insertAfter(prevNode, pointsCount);
         
-        // Вставляем перед головой (что эквивалентно концу списка)
-        newNode.prev = head.prev;
-        newNode.next = head;
-        
-        head.prev.next = newNode;
-        head.prev = newNode;
-        
-        pointsCount++;
-        lastAccessedNode = newNode;
-        lastAccessedIndex = pointsCount - 1;
+        newNode.index = pointsCount - 1;
+        lastAccessed = newNode;
         
         return newNode;
     }
@@ -149,22 +272,12 @@ public class LinkedListTabulatedFunction implements TabulatedFunction{
             return addNodeToTail();
         }
         
-        // Находим узел, перед которым нужно вставить новый
-        FunctionNode nextNode = getNodeByIndex(index);
-        FunctionNode prevNode = nextNode.prev;
-        
-        // Создаем новый узел
-        FunctionNode newNode = new FunctionNode();
-        newNode.prev = prevNode;
-        newNode.next = nextNode;
-        
-        // Обновляем ссылки соседних узлов
-        prevNode.next = newNode;
-        nextNode.prev = newNode;
+        // Находим предшественников позиции на всех уровнях и вставляем новый узел
+        FunctionNode prevNode = findPredecessors(index + 1);
+        FunctionNode newNode = insertAfter(prevNode, index);
         
-        pointsCount++;
-        lastAccessedNode = newNode;
-        lastAccessedIndex = index;
+        newNode.index = index;
+        lastAccessed = newNode;
         
         return newNode;
     }
@@ -179,26 +292,226 @@ public class LinkedListTabulatedFunction implements TabulatedFunction{
             throw new IllegalStateException("Невозможно удалить точку: должно остаться минимум 2 точки");
         }
         
-        // Находим удаляемый узел
-        FunctionNode nodeToDelete = getNodeByIndex(index);
+        // Находим удаляемый узел и его предшественников на всех уровнях
+        FunctionNode nodeToDelete = findPredecessors(index + 1).next;
+        
+        // Обновляем экспресс-полосы
+        for (int level = 0; level < skipLevel; level++) {
+            FunctionNode node = skipUpdate[level];
+            if (node.skipNext[level] == nodeToDelete) {
+                node.skipSpan[level] += nodeToDelete.skipSpan[level] - 1;
+                node.skipNext[level] = nodeToDelete.skipNext[level];
+            } else {
+                node.skipSpan[level]--;
+            }
+        }
+        while (skipLevel > 0 && head.skipNext[skipLevel - 1] == null) {
+            skipLevel--;
+        }
         
-        // Обновляем ссылки соседних узлов
+        // Обновляем ссылки соседних узлов; два соседних интервала сливаются в один
         nodeToDelete.prev.next = nodeToDelete.next;
         nodeToDelete.next.prev = nodeToDelete.prev;
+        nodeToDelete.prev.slope = Double.NaN;
+        areaIndex = null;
         
         pointsCount--;
+        modCount++;
         
         // Сбрасываем кэш, если удалили кэшированный элемент
-        if (lastAccessedIndex == index) {
-            lastAccessedNode = head;
-            lastAccessedIndex = -1;
-        } else if (lastAccessedIndex > index) {
-            lastAccessedIndex--;
+        FunctionNode cached = lastAccessed;
+        if (cached.index == index) {
+            lastAccessed = head;
+        } else if (cached.index > index) {
+            cached.index--;
         }
         
         return nodeToDelete;
     }
     
+    // Удаление за один проход всех точек i, для которых keep[i] == false.
+    // Экспресс-полосы перестраиваются тем же проходом: оставшиеся узлы сохраняют
+    // свои уровни, а длины пропусков считаются заново
+    public void retainPoints(boolean[] keep) {
+        DoubleArrayTabulatedFunction.checkKeep(keep, pointsCount);
+        // Последний оставленный узел на каждом уровне и его ранг
+        for (int level = 0; level < skipLevel; level++) {
+            skipUpdate[level] = head;
+            skipRank[level] = 0;
+        }
+        int newSkipLevel = 0;
+        int rank = 0;
+        FunctionNode previous = head;
+        FunctionNode node = head.next;
+        for (int i = 0; i < pointsCount; i++) {
+            FunctionNode next = node.next;
+            if (keep[i]) {
+                rank++;
+                previous.next = node;
+                node.prev = previous;
+                if (node.skipNext != null) {
+                    for (int level = 0; level < node.skipNext.length; level++) {
+                        skipUpdate[level].skipNext[level] = node;
+                        skipUpdate[level].skipSpan[level] = rank - skipRank[level];
+                        skipUpdate[level] = node;
+                        skipRank[level] = rank;
+                    }
+                    newSkipLevel = Math.max(newSkipLevel, node.skipNext.length);
+                }
+                previous = node;
+            } else {
+                // Интервал от предыдущего оставленного узла удлинился
+                previous.slope = Double.NaN;
+            }
+            node = next;
+        }
+        previous.next = head;
+        head.prev = previous;
+        for (int level = 0; level < skipLevel; level++) {
+            skipUpdate[level].skipNext[level] = null;
+            skipUpdate[level].skipSpan[level] = rank - skipRank[level];
+        }
+        
+        if (rank != pointsCount) {
+            skipLevel = newSkipLevel;
+            pointsCount = rank;
+            areaIndex = null;
+            modCount++;
+            lastAccessed = head;
+        }
+    }
+    
+    // Поиск предшественников позиции с рангом targetRank на всех экспресс-уровнях
+    // (сохраняются в skipUpdate/skipRank); возвращает предшественника в основном списке
+    private FunctionNode findPredecessors(int targetRank) {
+        FunctionNode current = head;
+        int rank = 0;
+        for (int level = skipLevel - 1; level >= 0; level--) {
+            while (current.skipNext[level] != null && rank + current.skipSpan[level] < targetRank) {
+                rank += current.skipSpan[level];
+                current = current.skipNext[level];
+            }
+            skipUpdate[level] = current;
+            skipRank[level] = rank;
+        }
+        while (rank < targetRank - 1) {
+            current = current.next;
+            rank++;
+        }
+        return current;
+    }
+    
+    // Поиск предшественников позиции для абсциссы x (последних узлов с абсциссой меньше x)
+    // на всех экспресс-уровнях; возвращает предшественника в основном списке, его ранг - в skipBaseRank
+    private FunctionNode findPredecessorsByX(double x) {
+        FunctionNode current = head;
+        int rank = 0;
+        for (int level = skipLevel - 1; level >= 0; level--) {
+            while (current.skipNext[level] != null && current.skipNext[level].point.getX() < x) {
+                rank += current.skipSpan[level];
+                current = current.skipNext[level];
+            }
+            skipUpdate[level] = current;
+            skipRank[level] = rank;
+        }
+        while (current.next != head && current.next.point.getX() < x) {
+            current = current.next;
+            rank++;
+        }
+        skipBaseRank = rank;
+        return current;
+    }
+    
+    // Последний узел с абсциссой меньше x (или голова) - только чтение, без рабочих массивов
+    private FunctionNode findLastNodeBefore(double x) {
+        FunctionNode current = head;
+        for (int level = skipLevel - 1; level >= 0; level--) {
+            while (current.skipNext[level] != null && current.skipNext[level].point.getX() < x) {
+                current = current.skipNext[level];
+            }
+        }
+        while (current.next != head && current.next.point.getX() < x) {
+            current = current.next;
+        }
+        return current;
+    }
+    
+    // Количество узлов с абсциссой меньше x - только чтение, без рабочих массивов
+    private int countNodesBefore(double x) {
+        FunctionNode current = head;
+        int rank = 0;
+        for (int level = skipLevel - 1; level >= 0; level--) {
+            while (current.skipNext[level] != null && current.skipNext[level].point.getX() < x) {
+                rank += current.skipSpan[level];
+                current = current.skipNext[level];
+            }
+        }
+        while (current.next != head && current.next.point.getX() < x) {
+            current = current.next;
+            rank++;
+        }
+        return rank;
+    }
+    
+    // Вставка нового узла после prevNode с рангом prevRank; предшественники на экспресс-уровнях
+    // должны быть заранее найдены методом findPredecessors или findPredecessorsByX
+    private FunctionNode insertAfter(FunctionNode prevNode, int prevRank) {
+        int level = randomLevel();
+        if (level > skipLevel) {
+            for (int i = skipLevel; i < level; i++) {
+                skipUpdate[i] = head;
+                skipRank[i] = 0;
+                head.skipSpan[i] = pointsCount;
+            }
+            skipLevel = level;
+        }
+        
+        // Вставка в основной список за O(1); интервал, в который попал узел, делится на два
+        FunctionNode newNode = new FunctionNode();
+        newNode.prev = prevNode;
+        newNode.next = prevNode.next;
+        prevNode.next.prev = newNode;
+        prevNode.next = newNode;
+        prevNode.slope = Double.NaN;
+        areaIndex = null;
+        
+        // Вставка в экспресс-полосы с пересчётом длин пропусков
+        if (level > 0) {
+            newNode.skipNext = new FunctionNode[level];
+            newNode.skipSpan = new int[level];
+        }
+        for (int i = 0; i < level; i++) {
+            FunctionNode node = skipUpdate[i];
+            newNode.skipNext[i] = node.skipNext[i];
+            node.skipNext[i] = newNode;
+            newNode.skipSpan[i] = node.skipSpan[i] - (prevRank - skipRank[i]);
+            node.skipSpan[i] = prevRank - skipRank[i] + 1;
+        }
+        for (int i = level; i < skipLevel; i++) {
+            skipUpdate[i].skipSpan[i]++;
+        }
+        
+        pointsCount++;
+        modCount++;
+        return newNode;
+    }
+    
+    // Случайный уровень нового узла: уровень k выпадает с вероятностью (1/4)^k
+    private int randomLevel() {
+        int random = randomState;
+        random ^= random << 13;
+        random ^= random >>> 17;
+        random ^= random << 5;
+        randomState = random;
+        
+        int level = 0;
+        while ((random & 3) == 0 && level < MAX_SKIP_LEVEL) {
+            level++;
+            random >>>= 2;
+        }
+        return level;
+    }
+    
     // Методы табулированной функции (аналогичные TabulatedFunction)
     
     public double getLeftDomainBorder() {
@@ -220,30 +533,327 @@ public class LinkedListTabulatedFunction implements TabulatedFunction{
             return Double.NaN;
         }
         
-        FunctionNode current = head.next;
+        // Ищем интервал по экспресс-полосам: x лежит в (current, current.next]
+        FunctionNode current = findLastNodeBefore(x);
+        FunctionNode next = current.next;
         
-        // Проверяем первую точку
-        if (Math.abs(x - current.point.getX()) < EPSILON) {
+        if (current != head && Math.abs(x - current.point.getX()) < EPSILON) {
             return current.point.getY();
         }
+        if (next != head && Math.abs(x - next.point.getX()) < EPSILON) {
+            return next.point.getY();
+        }
+        if (current == head || next == head) {
+            return Double.NaN;
+        }
         
-        // Ищем интервал
-        for (int i = 0; i < pointsCount - 1; i++) {
-            double curX = current.point.getX();
-            double nextX = current.next.point.getX();
-            
-            if (Math.abs(x - nextX) < EPSILON) {
-                return current.next.point.getY();
+        return segmentValue(current, x);
+    }
+    
+    public void getFunctionValues(double[] xs, int offset, int length, double[] out) {
+        DoubleArrayTabulatedFunction.checkRange(xs, offset, length, out);
+        int end = offset + length;
+        double leftX = getLeftDomainBorder();
+        double rightX = getRightDomainBorder();
+        // Для упорядоченных аргументов проход начинается с интервала первого из них
+        // (найденного по экспресс-полосам); слияние выбирается, только если между первым
+        // и последним аргументом не слишком много узлов
+        FunctionNode current = head.next;
+        boolean merge = pointsCount >= 2 && length > 0 && DoubleArrayTabulatedFunction.isSorted(xs, offset, end);
+        if (merge) {
+            double firstX = Math.max(xs[offset], leftX);
+            double lastX = Math.min(xs[end - 1], rightX);
+            merge = DoubleArrayTabulatedFunction.isMergeCheaper(
+                    countNodesBefore(lastX) - countNodesBefore(firstX), length, pointsCount);
+            FunctionNode before = findLastNodeBefore(firstX);
+            if (before != head) {
+                current = before;
             }
-            
-            if (x > curX && x < nextX) {
-                return linearInterpolation(current.point, current.next.point, x);
+        }
+        if (!merge) {
+            // Поиск интервала для каждого аргумента отдельно
+            for (int q = offset; q < end; q++) {
+                out[q] = getFunctionValue(xs[q]);
+            }
+            return;
+        }
+        
+        // Один проход по списку слиянием
+        for (int q = offset; q < end; q++) {
+            double x = xs[q];
+            if (pointsCount == 0 || x < leftX || x > rightX) {
+                out[q] = Double.NaN;
+                continue;
+            }
+            while (current.next != head && current.next.next != head && x > current.next.point.getX()) {
+                current = current.next;
+            }
+            if (Math.abs(x - current.point.getX()) < EPSILON) {
+                out[q] = current.point.getY();
+            } else if (Math.abs(x - current.next.point.getX()) < EPSILON) {
+                out[q] = current.next.point.getY();
+            } else {
+                out[q] = segmentValue(current, x);
+            }
+        }
+    }
+    
+    // Интеграл через индекс площадей: полные интервалы суммируются за O(log n),
+    // неполные крайние интервалы вычисляются отдельно
+    public double integral(double a, double b) {
+        if (a > b) {
+            return -integral(b, a);
+        }
+        if (pointsCount == 0 || !(a >= getLeftDomainBorder()) || !(b <= getRightDomainBorder())) {
+            return Double.NaN;
+        }
+        if (pointsCount == 1) {
+            return 0;
+        }
+        
+        // Номера интервалов, содержащих a и b
+        int i = Math.min(Math.max(countNodesBefore(a) - 1, 0), pointsCount - 2);
+        int j = Math.min(Math.max(countNodesBefore(b) - 1, 0), pointsCount - 2);
+        FunctionNode left = getNodeByIndex(i);
+        if (i == j) {
+            return partialArea(left, a, b);
+        }
+        FunctionNode right = getNodeByIndex(j);
+        SegmentAreaTree index = areaIndex();
+        return partialArea(left, a, left.next.point.getX())
+                + (index.prefixSum(j) - index.prefixSum(i + 1))
+                + partialArea(right, right.point.getX(), b);
+    }
+    
+    // Площадь под интервалом от узла node до следующего на отрезке [from, to] внутри него
+    private static double partialArea(FunctionNode node, double from, double to) {
+        double x1 = node.point.getX();
+        double y1 = node.point.getY();
+        double slope = SegmentInterpolation.slope(x1, y1, node.next.point.getX(), node.next.point.getY());
+        return SegmentAreaTree.trapezoid(from, y1 + slope * (from - x1), to, y1 + slope * (to - x1));
+    }
+    
+    // Площадь под интервалом от узла node до следующего целиком
+    private static double segmentArea(FunctionNode node) {
+        return SegmentAreaTree.trapezoid(node.point.getX(), node.point.getY(), node.next.point.getX(), node.next.point.getY());
+    }
+    
+    // Индекс площадей, построенный заново после вставок и удалений точек
+    private SegmentAreaTree areaIndex() {
+        SegmentAreaTree index = areaIndex;
+        if (index == null) {
+            double[] areas = new double[pointsCount - 1];
+            FunctionNode node = head.next;
+            for (int i = 0; i < areas.length; i++) {
+                areas[i] = segmentArea(node);
+                node = node.next;
+            }
+            index = new SegmentAreaTree(areas);
+            areaIndex = index;
+        }
+        return index;
+    }
+    
+    // Обновление площадей интервалов, концом которых служит узел node с номером index, за O(log n)
+    private void updateAreas(FunctionNode node, int index) {
+        SegmentAreaTree tree = areaIndex;
+        if (tree != null) {
+            if (index > 0) {
+                tree.set(index - 1, segmentArea(node.prev));
+            }
+            if (index < pointsCount - 1) {
+                tree.set(index, segmentArea(node));
+            }
+        }
+    }
+    
+    // Обход точек по ссылкам next, без поиска узла для каждого номера
+    public void forEachPoint(PointVisitor visitor) {
+        for (FunctionNode node = head.next; node != head; node = node.next) {
+            visitor.visit(node.point.getX(), node.point.getY());
+        }
+    }
+    
+    public void copyXs(double[] out) {
+        if (out.length < pointsCount) {
+            throw new IllegalArgumentException("Массив короче количества точек");
+        }
+        int i = 0;
+        for (FunctionNode node = head.next; node != head; node = node.next) {
+            out[i++] = node.point.getX();
+        }
+    }
+    
+    public void copyYs(double[] out) {
+        if (out.length < pointsCount) {
+            throw new IllegalArgumentException("Массив короче количества точек");
+        }
+        int i = 0;
+        for (FunctionNode node = head.next; node != head; node = node.next) {
+            out[i++] = node.point.getY();
+        }
+    }
+    
+    public PointCursor pointCursor() {
+        return new NodePointCursor();
+    }
+    
+    // Разделяемые итераторы обходят узлы по ссылкам next и делятся по середине номеров
+    public Spliterator<FunctionPoint> pointSpliterator() {
+        return new PointSpliterator(new NodePointRange(head.next, 0, pointsCount, modCount));
+    }
+    
+    public Spliterator<FunctionSegment> segmentSpliterator() {
+        return new SegmentSpliterator(new NodePointRange(head.next, 0, pointsCount, modCount));
+    }
+    
+    public Spliterator.OfDouble xSpliterator() {
+        return new CoordinateSpliterator(new NodePointRange(head.next, 0, pointsCount, modCount), false);
+    }
+    
+    public Spliterator.OfDouble ySpliterator() {
+        return new CoordinateSpliterator(new NodePointRange(head.next, 0, pointsCount, modCount), true);
+    }
+    
+    // Диапазон точек списка: текущий узел и его номер. Узел середины при делении
+    // находится по экспресс-полосам за O(log n), а не проходом по половине диапазона
+    private class NodePointRange extends PointRange {
+        private FunctionNode node;
+        private final int expectedModCount;
+        
+        NodePointRange(FunctionNode node, int index, int fence, int expectedModCount) {
+            super(index, fence);
+            this.node = node;
+            this.expectedModCount = expectedModCount;
+        }
+        
+        double x() {
+            return node.point.getX();
+        }
+        
+        double y() {
+            return node.point.getY();
+        }
+        
+        void advance() {
+            node = node.next;
+            index++;
+        }
+        
+        PointRange split(int middle, int prefixFence) {
+            checkForComodification();
+            PointRange prefix = new NodePointRange(node, index, prefixFence, expectedModCount);
+            node = findNodeByRank(middle + 1);
+            index = middle;
+            return prefix;
+        }
+        
+        void checkForComodification() {
+            if (expectedModCount != modCount) {
+                throw new IllegalStateException("Точки функции изменились во время обхода");
+            }
+        }
+    }
+    
+    // Курсор обхода точек по ссылкам узлов списка
+    private class NodePointCursor implements PointCursor {
+        // Текущий узел (голова - перед первой точкой или после последней) и его номер
+        private FunctionNode current = head;
+        private int index = -1;
+        private int expectedModCount = modCount;
+        
+        public boolean next() {
+            // Вставка или удаление узлов во время обхода делает позицию курсора недействительной
+            if (expectedModCount != modCount) {
+                throw new IllegalStateException("Точки функции изменились во время обхода");
+            }
+            if (index == pointsCount || current.next == head) {
+                current = head;
+                index = pointsCount;
+                return false;
             }
-            
             current = current.next;
+            index++;
+            return true;
+        }
+        
+        // Текущая точка (голова - курсор не стоит на точке)
+        private FunctionNode node() {
+            if (current == head) {
+                throw new FunctionPointIndexOutOfBoundsException("Некорректный индекс точки: " + index);
+            }
+            return current;
+        }
+        
+        public double getX() {
+            return node().point.getX();
+        }
+        
+        public double getY() {
+            return node().point.getY();
+        }
+        
+        public int getIndex() {
+            return index;
         }
         
-        return Double.NaN;
+        public void reset() {
+            current = head;
+            index = -1;
+            expectedModCount = modCount;
+        }
+    }
+    
+    public FunctionCursor cursor() {
+        return new NodeCursor();
+    }
+    
+    // Курсор, перемещающийся по ссылкам узлов списка
+    private class NodeCursor implements FunctionCursor {
+        // Число шагов по ссылкам, после которого выполняется поиск по экспресс-полосам
+        private static final int MAX_WALK_STEPS = 4;
+        
+        // Левый узел текущего интервала и состояние списка, для которого он найден
+        private FunctionNode current = head;
+        private int expectedModCount = modCount - 1;
+        
+        public double getFunctionValue(double x) {
+            if (pointsCount == 0 || x < getLeftDomainBorder() || x > getRightDomainBorder()) {
+                return Double.NaN;
+            }
+            
+            // После вставки или удаления узлов текущий узел мог быть удалён из списка
+            if (expectedModCount != modCount) {
+                current = findLastNodeBefore(x);
+                expectedModCount = modCount;
+            } else {
+                // Сдвиг по ссылкам: x должен лежать в (current, current.next]
+                int steps = 0;
+                while (current.next != head && current.next.point.getX() < x && steps < MAX_WALK_STEPS) {
+                    current = current.next;
+                    steps++;
+                }
+                while (current != head && current.point.getX() >= x && steps < MAX_WALK_STEPS) {
+                    current = current.prev;
+                    steps++;
+                }
+                if (steps == MAX_WALK_STEPS) {
+                    current = findLastNodeBefore(x);
+                }
+            }
+            
+            FunctionNode next = current.next;
+            if (current != head && Math.abs(x - current.point.getX()) < EPSILON) {
+                return current.point.getY();
+            }
+            if (next != head && Math.abs(x - next.point.getX()) < EPSILON) {
+                return next.point.getY();
+            }
+            if (current == head || next == head) {
+                return Double.NaN;
+            }
+            return segmentValue(current, x);
+        }
     }
     
     private double linearInterpolation(FunctionPoint p1, FunctionPoint p2, double x) {
@@ -275,6 +885,8 @@ public class LinkedListTabulatedFunction implements TabulatedFunction{
         }
         
         node.point = new FunctionPoint(point);
+        invalidateSegments(node);
+        updateAreas(node, index);
     }
     
     public double getPointX(int index) {
@@ -293,6 +905,8 @@ public class LinkedListTabulatedFunction implements TabulatedFunction{
         }
         
         node.point.setX(x);
+        invalidateSegments(node);
+        updateAreas(node, index);
     }
     
     public double getPointY(int index) {
@@ -300,7 +914,10 @@ public class LinkedListTabulatedFunction implements TabulatedFunction{
     }
     
     public void setPointY(int index, double y) {
-        getNodeByIndex(index).point.setY(y);
+        FunctionNode node = getNodeByIndex(index);
+        node.point.setY(y);
+        invalidateSegments(node);
+        updateAreas(node, index);
     }
     
     public void deletePoint(int index) {
@@ -310,25 +927,20 @@ public class LinkedListTabulatedFunction implements TabulatedFunction{
     public void addPoint(FunctionPoint point) throws InappropriateFunctionPointException {
         double newX = point.getX();
         
-        // Проверяем, не существует ли уже точка с таким X
-        FunctionNode current = head.next;
-        for (int i = 0; i < pointsCount; i++) {
-            if (Math.abs(current.point.getX() - newX) < EPSILON) {
-                throw new InappropriateFunctionPointException("Точка с таким X уже существует");
-            }
-            current = current.next;
-        }
+        // Находим позицию для вставки за один спуск по экспресс-полосам
+        FunctionNode prevNode = findPredecessorsByX(newX);
         
-        // Находим позицию для вставки
-        int insertIndex = 0;
-        current = head.next;
-        while (insertIndex < pointsCount && current.point.getX() < newX) {
-            current = current.next;
-            insertIndex++;
+        // Проверяем, не существует ли уже точка с таким X (точки упорядочены - достаточно соседей)
+        if ((prevNode != head && Math.abs(prevNode.point.getX() - newX) < EPSILON)
+                || (prevNode.next != head && Math.abs(prevNode.next.point.getX() - newX) < EPSILON)) {
+            throw new InappropriateFunctionPointException("Точка с таким X уже существует");
         }
         
         // Вставляем новую точку
-        FunctionNode newNode = addNodeByIndex(insertIndex);
+        int insertIndex = skipBaseRank;
+        FunctionNode newNode = insertAfter(prevNode, insertIndex);
         newNode.point = new FunctionPoint(point);
+        newNode.index = insertIndex;
+        lastAccessed = newNode;
     }
 }
\ No newline at end of file
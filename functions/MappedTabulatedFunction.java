@@ -0,0 +1,135 @@
+package functions;
+
+import java.nio.DoubleBuffer;
+
+// Табулированная функция только для чтения над столбцами отображённого в память файла
+// (создаётся методом TabulatedFunctionFiles.map). Изменяющие методы выбрасывают
+// UnsupportedOperationException
+class MappedTabulatedFunction implements TabulatedFunction {
+    private static final double EPSILON = 1e-10;
+
+    private final DoubleBuffer xs;
+    private final DoubleBuffer ys;
+    private final int pointsCount;
+
+    // Признак равномерной сетки и её параметры (для поиска интервала за O(1))
+    private final boolean uniformGrid;
+    private final double gridLeftX;
+    private final double gridStep;
+
+    MappedTabulatedFunction(DoubleBuffer xs, DoubleBuffer ys, int pointsCount,
+                            boolean uniformGrid, double leftX, double rightX) {
+        this.xs = xs;
+        this.ys = ys;
+        this.pointsCount = pointsCount;
+        this.uniformGrid = uniformGrid;
+        this.gridLeftX = leftX;
+        this.gridStep = (rightX - leftX) / (pointsCount - 1);
+    }
+
+    // Поиск номера интервала [x_i, x_(i+1)], содержащего x (x лежит в области определения)
+    private int findSegmentIndex(double x) {
+        if (uniformGrid) {
+            int index = (int) ((x - gridLeftX) / gridStep);
+            if (index < 0) {
+                index = 0;
+            } else if (index > pointsCount - 2) {
+                index = pointsCount - 2;
+            }
+            // Поправка на погрешность округления
+            while (index > 0 && x < xs.get(index)) {
+                index--;
+            }
+            while (index < pointsCount - 2 && x > xs.get(index + 1)) {
+                index++;
+            }
+            return index;
+        }
+
+        int low = 0;
+        int high = pointsCount - 1;
+        while (high - low > 1) {
+            int middle = (low + high) >>> 1;
+            if (xs.get(middle) <= x) {
+                low = middle;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    public double getLeftDomainBorder() {
+        return xs.get(0);
+    }
+
+    public double getRightDomainBorder() {
+        return xs.get(pointsCount - 1);
+    }
+
+    public double getFunctionValue(double x) {
+        if (x < getLeftDomainBorder() || x > getRightDomainBorder()) {
+            return Double.NaN;
+        }
+
+        int i = findSegmentIndex(x);
+        double leftX = xs.get(i);
+        double rightX = xs.get(i + 1);
+
+        if (Math.abs(x - leftX) < EPSILON) {
+            return ys.get(i);
+        }
+        if (Math.abs(x - rightX) < EPSILON) {
+            return ys.get(i + 1);
+        }
+
+        double leftY = ys.get(i);
+        return leftY + (ys.get(i + 1) - leftY) * (x - leftX) / (rightX - leftX);
+    }
+
+    public int getPointsCount() {
+        return pointsCount;
+    }
+
+    // Проверка границ индекса
+    private void checkIndex(int index) {
+        if (index < 0 || index >= pointsCount) {
+            throw new FunctionPointIndexOutOfBoundsException("Некорректный индекс точки: " + index);
+        }
+    }
+
+    public FunctionPoint getPoint(int index) {
+        checkIndex(index);
+        return new FunctionPoint(xs.get(index), ys.get(index));
+    }
+
+    public double getPointX(int index) {
+        checkIndex(index);
+        return xs.get(index);
+    }
+
+    public double getPointY(int index) {
+        checkIndex(index);
+        return ys.get(index);
+    }
+
+    public void setPoint(int index, FunctionPoint point) {
+        throw new UnsupportedOperationException("Функция из отображённого файла доступна только для чтения");
+    }
+
+    public void setPointX(int index, double x) {
+        throw new UnsupportedOperationException("Функция из отображённого файла доступна только для чтения");
+    }
+
+    public void setPointY(int index, double y) {
+        throw new UnsupportedOperationException("Функция из отображённого файла доступна только для чтения");
+    }
+
+    public void deletePoint(int index) {
+        throw new UnsupportedOperationException("Функция из отображённого файла доступна только для чтения");
+    }
+
+    public void addPoint(FunctionPoint point) {
+        throw new UnsupportedOperationException("Функция из отображённого файла доступна только для чтения");
+    }
+}
@@ -0,0 +1,310 @@
+package functions;
+
+import java.util.Spliterator;
+
+// Табулированная функция-обёртка, запоминающая результаты getFunctionValue для повторяющихся аргументов.
+// Результаты хранятся в хеш-таблице с открытой адресацией на массивах примитивов
+// (ключ - битовое представление аргумента), размер которой ограничен заданной вместимостью.
+// При заполнении вытесняется запись, выбранная алгоритмом CLOCK: стрелка обходит таблицу,
+// снимая признак обращения с недавно использованных записей и вытесняя первую запись без него.
+// Каждое изменение точек через обёртку увеличивает номер версии, и все записи прежних версий
+// становятся недействительными за O(1). Изменения обёрнутой функции в обход обёртки не отслеживаются.
+// Объект не потокобезопасен даже для чтения: каждое вычисление значения изменяет таблицу.
+public class MemoizingTabulatedFunction implements TabulatedFunction {
+    // Вместимость по умолчанию
+    public static final int DEFAULT_CAPACITY = 4096;
+
+    private final TabulatedFunction function;
+    private final int capacity;
+
+    // Таблица: ключи, значения, версия записи (0 - пустая ячейка) и признаки обращения для CLOCK.
+    // Размер таблицы - степень двойки не менее удвоенной вместимости, так что она заполнена не более чем наполовину
+    private final long[] keys;
+    private final double[] values;
+    private final int[] versions;
+    private final boolean[] referenced;
+    private final int mask;
+    private int size;
+
+    // Стрелка CLOCK и текущая версия точек
+    private int hand;
+    private int version = 1;
+
+    // Статистика обращений
+    private long hits;
+    private long misses;
+
+    public MemoizingTabulatedFunction(TabulatedFunction function) {
+        this(function, DEFAULT_CAPACITY);
+    }
+
+    // Конструктор с вместимостью (наибольшим количеством запоминаемых аргументов)
+    public MemoizingTabulatedFunction(TabulatedFunction function, int capacity) {
+        if (function == null) {
+            throw new IllegalArgumentException("Функция не задана");
+        }
+        if (capacity < 1 || capacity > 1 << 29) {
+            throw new IllegalArgumentException("Некорректная вместимость: " + capacity);
+        }
+        this.function = function;
+        this.capacity = capacity;
+        int tableSize = Integer.highestOneBit(capacity * 2 - 1) << 1;
+        keys = new long[tableSize];
+        values = new double[tableSize];
+        versions = new int[tableSize];
+        referenced = new boolean[tableSize];
+        mask = tableSize - 1;
+    }
+
+    // Обёрнутая функция
+    public TabulatedFunction getFunction() {
+        return function;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public long getHitCount() {
+        return hits;
+    }
+
+    public long getMissCount() {
+        return misses;
+    }
+
+    // Доля вычислений, результат которых взят из таблицы (0, если вычислений не было)
+    public double getHitRatio() {
+        long total = hits + misses;
+        return total == 0 ? 0 : (double) hits / total;
+    }
+
+    // Обнуление статистики обращений
+    public void resetStatistics() {
+        hits = 0;
+        misses = 0;
+    }
+
+    // Сброс всех запомненных значений
+    public void invalidate() {
+        if (++version == 0) {
+            // Номера версий исчерпаны: таблица очищается, чтобы старые записи не стали снова действительными
+            for (int i = 0; i <= mask; i++) {
+                versions[i] = 0;
+            }
+            size = 0;
+            version = 1;
+        }
+    }
+
+    // Перемешивание битов ключа (финализатор MurmurHash3)
+    private static int hash(long bits) {
+        bits ^= bits >>> 33;
+        bits *= 0xFF51AFD7ED558CCDL;
+        bits ^= bits >>> 33;
+        bits *= 0xC4CEB9FE1A85EC53L;
+        bits ^= bits >>> 33;
+        return (int) bits;
+    }
+
+    public double getFunctionValue(double x) {
+        long bits = Double.doubleToRawLongBits(x);
+        int i = hash(bits) & mask;
+        while (versions[i] != 0) {
+            if (keys[i] == bits) {
+                referenced[i] = true;
+                if (versions[i] == version) {
+                    hits++;
+                    return values[i];
+                }
+                // Запись устарела: значение пересчитывается на месте
+                misses++;
+                double value = function.getFunctionValue(x);
+                values[i] = value;
+                versions[i] = version;
+                return value;
+            }
+            i = (i + 1) & mask;
+        }
+
+        misses++;
+        double value = function.getFunctionValue(x);
+        if (size == capacity) {
+            evict();
+            // Удаление сдвигает записи, поэтому свободная ячейка ищется заново
+            i = hash(bits) & mask;
+            while (versions[i] != 0) {
+                i = (i + 1) & mask;
+            }
+        }
+        keys[i] = bits;
+        values[i] = value;
+        versions[i] = version;
+        referenced[i] = false;
+        size++;
+        return value;
+    }
+
+    // Вытеснение одной записи по алгоритму CLOCK (устаревшие записи вытесняются первыми)
+    private void evict() {
+        while (true) {
+            int i = hand;
+            hand = (hand + 1) & mask;
+            if (versions[i] == 0) {
+                continue;
+            }
+            if (versions[i] == version && referenced[i]) {
+                referenced[i] = false;
+                continue;
+            }
+            remove(i);
+            return;
+        }
+    }
+
+    // Удаление записи с обратным сдвигом следующих за ней записей той же цепочки,
+    // чтобы поиск с линейным пробированием не обрывался на образовавшейся пустой ячейке
+    private void remove(int i) {
+        int j = i;
+        while (true) {
+            j = (j + 1) & mask;
+            if (versions[j] == 0) {
+                break;
+            }
+            int home = hash(keys[j]) & mask;
+            // Запись j можно перенести в i, если её исходная ячейка не лежит в циклическом интервале (i, j]
+            boolean movable = i <= j ? (home <= i || home > j) : (home <= i && home > j);
+            if (movable) {
+                keys[i] = keys[j];
+                values[i] = values[j];
+                versions[i] = versions[j];
+                referenced[i] = referenced[j];
+                i = j;
+            }
+        }
+        versions[i] = 0;
+        size--;
+    }
+
+    public double getLeftDomainBorder() {
+        return function.getLeftDomainBorder();
+    }
+
+    public double getRightDomainBorder() {
+        return function.getRightDomainBorder();
+    }
+
+    // Пакетное вычисление передаётся обёрнутой функции напрямую, не вытесняя запомненные значения
+    public void getFunctionValues(double[] xs, int offset, int length, double[] out) {
+        function.getFunctionValues(xs, offset, length, out);
+    }
+
+    public double integral(double a, double b) {
+        return function.integral(a, b);
+    }
+
+    public FunctionCursor cursor() {
+        return function.cursor();
+    }
+
+    public FrozenTabulatedFunction freeze() {
+        return function.freeze();
+    }
+
+    public void forEachPoint(PointVisitor visitor) {
+        function.forEachPoint(visitor);
+    }
+
+    public PointCursor pointCursor() {
+        return function.pointCursor();
+    }
+
+    public void copyXs(double[] out) {
+        function.copyXs(out);
+    }
+
+    public void copyYs(double[] out) {
+        function.copyYs(out);
+    }
+
+    public Spliterator<FunctionPoint> pointSpliterator() {
+        return function.pointSpliterator();
+    }
+
+    public Spliterator<FunctionSegment> segmentSpliterator() {
+        return function.segmentSpliterator();
+    }
+
+    public Spliterator.OfDouble xSpliterator() {
+        return function.xSpliterator();
+    }
+
+    public Spliterator.OfDouble ySpliterator() {
+        return function.ySpliterator();
+    }
+
+    public int getPointsCount() {
+        return function.getPointsCount();
+    }
+
+    public FunctionPoint getPoint(int index) {
+        return function.getPoint(index);
+    }
+
+    public double getPointX(int index) {
+        return function.getPointX(index);
+    }
+
+    public double getPointY(int index) {
+        return function.getPointY(index);
+    }
+
+    // Таблица сбрасывается и при неудачном изменении: обёрнутая функция могла измениться частично
+    public void setPoint(int index, FunctionPoint point) throws InappropriateFunctionPointException {
+        try {
+            function.setPoint(index, point);
+        } finally {
+            invalidate();
+        }
+    }
+
+    public void setPointX(int index, double x) throws InappropriateFunctionPointException {
+        try {
+            function.setPointX(index, x);
+        } finally {
+            invalidate();
+        }
+    }
+
+    public void setPointY(int index, double y) {
+        try {
+            function.setPointY(index, y);
+        } finally {
+            invalidate();
+        }
+    }
+
+    public void deletePoint(int index) {
+        try {
+            function.deletePoint(index);
+        } finally {
+            invalidate();
+        }
+    }
+
+    public void addPoint(FunctionPoint point) throws InappropriateFunctionPointException {
+        try {
+            function.addPoint(point);
+        } finally {
+            invalidate();
+        }
+    }
+
+    public void retainPoints(boolean[] keep) {
+        try {
+            function.retainPoints(keep);
+        } finally {
+            invalidate();
+        }
+    }
+}
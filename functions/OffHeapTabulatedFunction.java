@@ -0,0 +1,442 @@
+package functions;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+// Табулированная функция, точки которой хранятся вне кучи Java.
+// Точки лежат парами (x, y) в страницах прямых буферов (ByteBuffer.allocateDirect)
+// или в страницах файла, отображённых в память. Сборщик мусора содержимое страниц не просматривает.
+// Страница вмещает 2^26 точек (1 ГБ), точки адресуются индексом long, поэтому количество
+// точек не ограничено размером одного буфера. Методы интерфейса с индексами int доступны,
+// пока точек не больше Integer.MAX_VALUE; для больших таблиц есть методы с индексами long.
+//
+// Формат файла (порядок байтов little-endian):
+//   int    сигнатура 'OHTF'
+//   int    версия формата (1)
+//   long   количество точек n
+//   (double, double)[вместимость] точки, из которых используются первые n
+public class OffHeapTabulatedFunction implements TabulatedFunction, AutoCloseable {
+    public static final int MAGIC = 0x4654484F;
+    public static final int VERSION = 1;
+
+    // Размер заголовка файла в байтах
+    static final int HEADER_SIZE = 16;
+
+    // Размер одной точки в байтах: x и y типа double
+    private static final int POINT_SIZE = 2 * Double.BYTES;
+
+    // Количество точек в странице: 2^PAGE_SHIFT
+    private static final int PAGE_SHIFT = 26;
+    private static final long PAGE_POINTS = 1L << PAGE_SHIFT;
+    private static final long PAGE_MASK = PAGE_POINTS - 1;
+    private static final double EPSILON = 1e-10;
+
+    // Файл с точками и отображённый заголовок (null - прямые буферы)
+    private final FileChannel channel;
+    private final MappedByteBuffer header;
+
+    // Все страницы, кроме последней, заполнены целиком; последняя растёт до размера страницы
+    private ByteBuffer[] pages;
+    private long capacity;
+    private long pointsCount;
+
+    public OffHeapTabulatedFunction(double leftX, double rightX, int pointsCount) {
+        // Проверка условий конструктора
+        if (leftX >= rightX) {
+            throw new IllegalArgumentException("Левая граница должна быть меньше правой");
+        }
+        checkPointsCount(pointsCount);
+
+        this.channel = null;
+        this.header = null;
+        reserve(pointsCount);
+        double step = (rightX - leftX) / (pointsCount - 1);
+        for (int i = 0; i < pointsCount; i++) {
+            putPoint(i, leftX + i * step, 0);
+        }
+        this.pointsCount = pointsCount;
+    }
+
+    public OffHeapTabulatedFunction(double leftX, double rightX, double[] values) {
+        // Проверка условий конструктора
+        if (leftX >= rightX) {
+            throw new IllegalArgumentException("Левая граница должна быть меньше правой");
+        }
+        checkPointsCount(values.length);
+
+        this.channel = null;
+        this.header = null;
+        reserve(values.length);
+        double step = (rightX - leftX) / (values.length - 1);
+        for (int i = 0; i < values.length; i++) {
+            putPoint(i, leftX + i * step, values[i]);
+        }
+        this.pointsCount = values.length;
+    }
+
+    // Конструктор по столбцам абсцисс и ординат (прямые буферы)
+    public OffHeapTabulatedFunction(double[] xs, double[] ys) {
+        checkColumns(xs, ys);
+        this.channel = null;
+        this.header = null;
+        reserve(xs.length);
+        fill(xs, ys);
+    }
+
+    // Конструктор по столбцам абсцисс и ординат с хранением точек в файле, отображённом в память.
+    // Файл создаётся или перезаписывается; открыть сохранённую функцию можно конструктором OffHeapTabulatedFunction(Path)
+    public OffHeapTabulatedFunction(Path file, double[] xs, double[] ys) throws IOException {
+        checkColumns(xs, ys);
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        try {
+            this.header = mapHeader(channel);
+            this.channel = channel;
+            header.putInt(0, MAGIC);
+            header.putInt(4, VERSION);
+            ensureCapacity(xs.length);
+            fill(xs, ys);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    // Открытие функции, ранее сохранённой в файле; изменения функции записываются в тот же файл
+    public OffHeapTabulatedFunction(Path file) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            long size = channel.size();
+            if (size < HEADER_SIZE) {
+                throw new IOException("Файл слишком мал для заголовка функции: " + file);
+            }
+            this.header = mapHeader(channel);
+            this.channel = channel;
+            if (header.getInt(0) != MAGIC) {
+                throw new IOException("Файл не является файлом точек функции: " + file);
+            }
+            if (header.getInt(4) != VERSION) {
+                throw new IOException("Неподдерживаемая версия формата: " + header.getInt(4));
+            }
+            long count = header.getLong(8);
+            if (count < 2 || count > (size - HEADER_SIZE) / POINT_SIZE) {
+                throw new IOException("Некорректное количество точек: " + count);
+            }
+            ensureCapacity(count);
+            pointsCount = count;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    private static MappedByteBuffer mapHeader(FileChannel channel) throws IOException {
+        MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE);
+        header.order(ByteOrder.LITTLE_ENDIAN);
+        return header;
+    }
+
+    private static void checkPointsCount(int pointsCount) {
+        if (pointsCount < 2) {
+            throw new IllegalArgumentException("Количество точек должно быть не менее двух");
+        }
+    }
+
+    private static void checkColumns(double[] xs, double[] ys) {
+        if (xs.length != ys.length) {
+            throw new IllegalArgumentException("Массивы абсцисс и ординат должны иметь одинаковую длину");
+        }
+        checkPointsCount(xs.length);
+        for (int i = 1; i < xs.length; i++) {
+            if (!(xs[i] > xs[i - 1])) {
+                throw new IllegalArgumentException("Абсциссы точек должны строго возрастать");
+            }
+        }
+    }
+
+    private void fill(double[] xs, double[] ys) {
+        for (int i = 0; i < xs.length; i++) {
+            putPoint(i, xs[i], ys[i]);
+        }
+        setPointsCount(xs.length);
+    }
+
+    // Изменение количества точек (для файла количество сразу записывается в заголовок)
+    private void setPointsCount(long count) {
+        pointsCount = count;
+        if (header != null) {
+            header.putLong(8, count);
+        }
+    }
+
+    // Увеличение вместимости не менее чем до needed точек, с запасом,
+    // чтобы вставки в среднем не требовали перераспределения
+    private void ensureCapacity(long needed) throws IOException {
+        if (needed <= capacity) {
+            return;
+        }
+        long newCapacity = Math.max(needed, capacity + (capacity >> 1) + 1);
+        int pageCount = (int) ((newCapacity + PAGE_MASK) >>> PAGE_SHIFT);
+        ByteBuffer[] newPages = new ByteBuffer[pageCount];
+        int first = 0;
+        if (pages != null) {
+            System.arraycopy(pages, 0, newPages, 0, pages.length);
+            first = pages.length - 1;
+        }
+        // Перераспределяется только последняя неполная страница, остальные добавляются
+        for (int k = first; k < pageCount; k++) {
+            long pagePoints = Math.min(PAGE_POINTS, newCapacity - ((long) k << PAGE_SHIFT));
+            if (newPages[k] == null || newPages[k].capacity() < pagePoints * POINT_SIZE) {
+                newPages[k] = page(k, (int) pagePoints, newPages[k]);
+            }
+        }
+        pages = newPages;
+        capacity = newCapacity;
+    }
+
+    private void reserve(long needed) {
+        try {
+            ensureCapacity(needed);
+        } catch (IOException e) {
+            throw new IllegalStateException("Не удалось расширить файл точек: " + e.getMessage(), e);
+        }
+    }
+
+    // Страница номер k на pagePoints точек. Прямой буфер копирует содержимое прежней страницы,
+    // у файла прежнее содержимое уже лежит в отображаемой области
+    private ByteBuffer page(int k, int pagePoints, ByteBuffer old) throws IOException {
+        int bytes = pagePoints * POINT_SIZE;
+        ByteBuffer page;
+        if (channel == null) {
+            page = ByteBuffer.allocateDirect(bytes);
+            if (old != null) {
+                page.put(old.duplicate().clear());
+            }
+        } else {
+            long position = HEADER_SIZE + ((long) k << PAGE_SHIFT) * POINT_SIZE;
+            page = channel.map(FileChannel.MapMode.READ_WRITE, position, bytes);
+        }
+        return page.order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    private double x(long index) {
+        return pages[(int) (index >>> PAGE_SHIFT)].getDouble((int) (index & PAGE_MASK) * POINT_SIZE);
+    }
+
+    private double y(long index) {
+        return pages[(int) (index >>> PAGE_SHIFT)].getDouble((int) (index & PAGE_MASK) * POINT_SIZE + Double.BYTES);
+    }
+
+    private void putX(long index, double x) {
+        pages[(int) (index >>> PAGE_SHIFT)].putDouble((int) (index & PAGE_MASK) * POINT_SIZE, x);
+    }
+
+    private void putY(long index, double y) {
+        pages[(int) (index >>> PAGE_SHIFT)].putDouble((int) (index & PAGE_MASK) * POINT_SIZE + Double.BYTES, y);
+    }
+
+    private void putPoint(long index, double x, double y) {
+        putX(index, x);
+        putY(index, y);
+    }
+
+    // Сдвиг точек [from, pointsCount) на одну позицию вправо (shift = 1) или влево (shift = -1).
+    // Точки переносятся по одной, так как сдвигаемая область может пересекать границы страниц
+    private void shift(long from, int shift) {
+        if (shift > 0) {
+            for (long i = pointsCount - 1; i >= from; i--) {
+                putPoint(i + 1, x(i), y(i));
+            }
+        } else {
+            for (long i = from; i < pointsCount; i++) {
+                putPoint(i - 1, x(i), y(i));
+            }
+        }
+    }
+
+    // Для файла - запись изменений на диск и закрытие файла. Память страниц освобождается,
+    // когда сборщик мусора удалит объекты буферов; дальнейшие обращения к функции недопустимы
+    public void close() throws IOException {
+        if (channel != null) {
+            for (ByteBuffer page : pages) {
+                ((MappedByteBuffer) page).force();
+            }
+            header.force();
+            channel.close();
+        }
+        pages = null;
+    }
+
+    // Поиск номера интервала [x_i, x_(i+1)], содержащего x (x лежит в области определения)
+    private long findSegmentIndex(double x) {
+        long low = 0;
+        long high = pointsCount - 1;
+        while (high - low > 1) {
+            long middle = (low + high) >>> 1;
+            if (x(middle) <= x) {
+                low = middle;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    public double getLeftDomainBorder() {
+        return x(0);
+    }
+
+    public double getRightDomainBorder() {
+        return x(pointsCount - 1);
+    }
+
+    public double getFunctionValue(double x) {
+        if (x < getLeftDomainBorder() || x > getRightDomainBorder()) {
+            return Double.NaN;
+        }
+
+        long i = findSegmentIndex(x);
+        double leftX = x(i);
+        double rightX = x(i + 1);
+
+        if (Math.abs(x - leftX) < EPSILON) {
+            return y(i);
+        }
+        if (Math.abs(x - rightX) < EPSILON) {
+            return y(i + 1);
+        }
+
+        double leftY = y(i);
+        return leftY + (y(i + 1) - leftY) * (x - leftX) / (rightX - leftX);
+    }
+
+    // Количество точек; для таблиц больше Integer.MAX_VALUE точек нужно использовать getLongPointsCount()
+    public int getPointsCount() {
+        if (pointsCount > Integer.MAX_VALUE) {
+            throw new IllegalStateException("Количество точек превышает Integer.MAX_VALUE: " + pointsCount);
+        }
+        return (int) pointsCount;
+    }
+
+    public long getLongPointsCount() {
+        return pointsCount;
+    }
+
+    // Проверка границ индекса
+    private void checkIndex(long index) {
+        if (index < 0 || index >= pointsCount) {
+            throw new FunctionPointIndexOutOfBoundsException("Некорректный индекс точки: " + index);
+        }
+    }
+
+    // Проверка упорядоченности точек при изменении абсциссы
+    private void checkX(long index, double x) throws InappropriateFunctionPointException {
+        if (index > 0 && x <= x(index - 1)) {
+            throw new InappropriateFunctionPointException("X координата должна быть больше предыдущей");
+        }
+        if (index < pointsCount - 1 && x >= x(index + 1)) {
+            throw new InappropriateFunctionPointException("X координата должна быть меньше следующей");
+        }
+    }
+
+    public FunctionPoint getPoint(int index) {
+        return getPoint((long) index);
+    }
+
+    public FunctionPoint getPoint(long index) {
+        checkIndex(index);
+        return new FunctionPoint(x(index), y(index));
+    }
+
+    public void setPoint(int index, FunctionPoint point) throws InappropriateFunctionPointException {
+        checkIndex(index);
+        checkX(index, point.getX());
+        putPoint(index, point.getX(), point.getY());
+    }
+
+    public double getPointX(int index) {
+        return getPointX((long) index);
+    }
+
+    public double getPointX(long index) {
+        checkIndex(index);
+        return x(index);
+    }
+
+    public void setPointX(int index, double x) throws InappropriateFunctionPointException {
+        checkIndex(index);
+        checkX(index, x);
+        putX(index, x);
+    }
+
+    public double getPointY(int index) {
+        return getPointY((long) index);
+    }
+
+    public double getPointY(long index) {
+        checkIndex(index);
+        return y(index);
+    }
+
+    public void setPointY(int index, double y) {
+        checkIndex(index);
+        putY(index, y);
+    }
+
+    public void deletePoint(int index) {
+        checkIndex(index);
+
+        // Проверка минимального количества точек
+        if (pointsCount < 3) {
+            throw new IllegalStateException("Невозможно удалить точку: должно остаться минимум 2 точки");
+        }
+
+        shift(index + 1, -1);
+        setPointsCount(pointsCount - 1);
+    }
+
+    // Удаление за один проход всех точек i, для которых keep[i] == false
+    public void retainPoints(boolean[] keep) {
+        DoubleArrayTabulatedFunction.checkKeep(keep, pointsCount);
+        long count = 0;
+        for (long i = 0; i < pointsCount; i++) {
+            if (keep[(int) i]) {
+                if (count != i) {
+                    putPoint(count, x(i), y(i));
+                }
+                count++;
+            }
+        }
+        setPointsCount(count);
+    }
+
+    public void addPoint(FunctionPoint point) throws InappropriateFunctionPointException {
+        double newX = point.getX();
+
+        // Позиция вставки и проверка на совпадение абсцисс одним двоичным поиском
+        long insertIndex = 0;
+        long high = pointsCount;
+        while (insertIndex < high) {
+            long middle = (insertIndex + high) >>> 1;
+            if (x(middle) < newX) {
+                insertIndex = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        if ((insertIndex < pointsCount && Math.abs(x(insertIndex) - newX) < EPSILON)
+                || (insertIndex > 0 && Math.abs(x(insertIndex - 1) - newX) < EPSILON)) {
+            throw new InappropriateFunctionPointException("Точка с таким X уже существует");
+        }
+
+        reserve(pointsCount + 1);
+        shift(insertIndex, 1);
+        putPoint(insertIndex, newX, point.getY());
+        setPointsCount(pointsCount + 1);
+    }
+}
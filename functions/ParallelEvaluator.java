@@ -0,0 +1,86 @@
+package functions;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+// Параллельное вычисление значений функции для больших массивов аргументов.
+// Массив аргументов делится на порции, которые вычисляются в пуле ForkJoinPool.
+// Во время вычисления функция используется только для чтения и не должна изменяться.
+public class ParallelEvaluator {
+    // Размер порции по умолчанию, меньше которого массив аргументов не делится
+    public static final int DEFAULT_THRESHOLD = 1 << 14;
+
+    private final ForkJoinPool pool;
+    private final int threshold;
+
+    // Конструктор по умолчанию (общий пул, порог по умолчанию)
+    public ParallelEvaluator() {
+        this(ForkJoinPool.commonPool(), DEFAULT_THRESHOLD);
+    }
+
+    // Конструктор с заданными пулом и порогом деления
+    public ParallelEvaluator(ForkJoinPool pool, int threshold) {
+        if (pool == null) {
+            throw new IllegalArgumentException("Пул потоков не задан");
+        }
+        if (threshold < 1) {
+            throw new IllegalArgumentException("Порог деления должен быть положительным");
+        }
+        this.pool = pool;
+        this.threshold = threshold;
+    }
+
+    public ForkJoinPool getPool() {
+        return pool;
+    }
+
+    public int getThreshold() {
+        return threshold;
+    }
+
+    // Значения функции для массива аргументов xs (результат в out)
+    public void getFunctionValues(TabulatedFunction function, double[] xs, double[] out) {
+        DoubleArrayTabulatedFunction.checkRange(xs, 0, xs.length, out);
+        if (xs.length <= threshold) {
+            function.getFunctionValues(xs, out);
+            return;
+        }
+        pool.invoke(new EvaluationTask(function, xs, out, 0, xs.length, threshold));
+    }
+
+    // Задача вычисления значений на отрезке [from, to) массива аргументов
+    private static class EvaluationTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final TabulatedFunction function;
+        private final double[] xs;
+        private final double[] out;
+        private final int from;
+        private final int to;
+        private final int threshold;
+
+        EvaluationTask(TabulatedFunction function, double[] xs, double[] out, int from, int to, int threshold) {
+            this.function = function;
+            this.xs = xs;
+            this.out = out;
+            this.from = from;
+            this.to = to;
+            this.threshold = threshold;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= threshold) {
+                // Порция вычисляется пакетным методом прямо в массив результатов. Для упорядоченных
+                // аргументов пакетный метод начинает проход с интервала первого аргумента порции,
+                // поэтому порции не проходят точки функции от начала
+                function.getFunctionValues(xs, from, to - from, out);
+                return;
+            }
+
+            int middle = (from + to) >>> 1;
+            invokeAll(new EvaluationTask(function, xs, out, from, middle, threshold),
+                    new EvaluationTask(function, xs, out, middle, to, threshold));
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package functions;
+
+// Курсор для последовательного обхода точек табулированной функции без создания объектов.
+// Изначально курсор стоит перед первой точкой; next() переходит к следующей точке,
+// после чего её координаты доступны через getX() и getY(). Метод reset() возвращает курсор
+// в начало, так что один курсор можно использовать для многих обходов.
+// Курсор не потокобезопасен: каждый поток должен получать собственный курсор.
+public interface PointCursor {
+    // Переход к следующей точке (false, если точки закончились)
+    boolean next();
+
+    // Координаты и номер текущей точки
+    double getX();
+    double getY();
+    int getIndex();
+
+    // Возврат в начало (перед первой точкой)
+    void reset();
+}
@@ -0,0 +1,32 @@
+package functions;
+
+// Диапазон точек табулированной функции с номерами [index, fence), обходимый по порядку.
+// Общая основа разделяемых итераторов (Spliterator) точек, интервалов и координат:
+// реализации дают доступ к текущей точке, переход к следующей и отделение начальной части
+abstract class PointRange {
+    // Номер текущей точки и номер, следующий за последней точкой диапазона
+    int index;
+    int fence;
+
+    PointRange(int index, int fence) {
+        this.index = index;
+        this.fence = fence;
+    }
+
+    // Абсцисса и ордината текущей точки
+    abstract double x();
+
+    abstract double y();
+
+    // Переход к следующей точке (index увеличивается на единицу)
+    abstract void advance();
+
+    // Отделение начальной части: возвращается диапазон [index, prefixFence),
+    // а этот диапазон продолжается с точки middle. Для интервалов prefixFence = middle + 1:
+    // точка middle - правый конец последнего интервала начальной части
+    abstract PointRange split(int middle, int prefixFence);
+
+    // Проверка, что точки функции не добавлялись и не удалялись с создания диапазона
+    void checkForComodification() {
+    }
+}
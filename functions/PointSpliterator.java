@@ -0,0 +1,50 @@
+package functions;
+
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+// Разделяемый итератор точек функции. Каждая точка выдаётся новым объектом FunctionPoint,
+// поэтому её изменение не затрагивает функцию. Диапазон делится пополам по номерам точек
+class PointSpliterator implements Spliterator<FunctionPoint> {
+    private final PointRange range;
+
+    PointSpliterator(PointRange range) {
+        this.range = range;
+    }
+
+    public boolean tryAdvance(Consumer<? super FunctionPoint> action) {
+        if (range.index >= range.fence) {
+            return false;
+        }
+        range.checkForComodification();
+        FunctionPoint point = new FunctionPoint(range.x(), range.y());
+        range.advance();
+        action.accept(point);
+        return true;
+    }
+
+    public void forEachRemaining(Consumer<? super FunctionPoint> action) {
+        while (range.index < range.fence) {
+            range.checkForComodification();
+            FunctionPoint point = new FunctionPoint(range.x(), range.y());
+            range.advance();
+            action.accept(point);
+        }
+    }
+
+    public Spliterator<FunctionPoint> trySplit() {
+        int middle = (range.index + range.fence) >>> 1;
+        if (middle <= range.index) {
+            return null;
+        }
+        return new PointSpliterator(range.split(middle, middle));
+    }
+
+    public long estimateSize() {
+        return range.fence - range.index;
+    }
+
+    public int characteristics() {
+        return ORDERED | SIZED | SUBSIZED | NONNULL;
+    }
+}
@@ -0,0 +1,7 @@
+package functions;
+
+// Обработчик точек табулированной функции для обхода методом forEachPoint.
+// Получает координаты точки как числа, поэтому обход не создаёт объектов FunctionPoint
+public interface PointVisitor {
+    void visit(double x, double y);
+}
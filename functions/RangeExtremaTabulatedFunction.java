@@ -0,0 +1,291 @@
+package functions;
+
+import java.util.Spliterator;
+
+// Табулированная функция-обёртка с индексом наименьших и наибольших значений на отрезках.
+// Индекс - дерево отрезков над ординатами точек и копия их абсцисс. Наименьшее и наибольшее
+// значение функции на [a, b] находятся за O(log n): у кусочно-линейной функции они достигаются
+// либо в точках внутри отрезка, либо на его концах, значения на которых интерполируются.
+// setPointY обновляет индекс за O(log n), setPointX - за O(1); после вставки или удаления точек
+// индекс строится заново при следующем запросе. Изменения обёрнутой функции в обход обёртки
+// не отслеживаются.
+public class RangeExtremaTabulatedFunction implements TabulatedFunction {
+    private final TabulatedFunction function;
+
+    // Копия абсцисс и деревья отрезков: листья tree[n + i] - ордината точки i,
+    // внутренний узел k - минимум (максимум) по потомкам 2k и 2k + 1
+    private double[] xs;
+    private double[] minTree;
+    private double[] maxTree;
+    private int pointsCount;
+
+    // Признак актуальности индекса
+    private boolean indexValid;
+
+    public RangeExtremaTabulatedFunction(TabulatedFunction function) {
+        if (function == null) {
+            throw new IllegalArgumentException("Функция не задана");
+        }
+        this.function = function;
+    }
+
+    // Обёрнутая функция
+    public TabulatedFunction getFunction() {
+        return function;
+    }
+
+    // Построение индекса за O(n)
+    private void buildIndex() {
+        int n = function.getPointsCount();
+        xs = new double[n];
+        minTree = new double[2 * n];
+        maxTree = new double[2 * n];
+        function.copyXs(xs);
+        double[] ys = new double[n];
+        function.copyYs(ys);
+        System.arraycopy(ys, 0, minTree, n, n);
+        System.arraycopy(ys, 0, maxTree, n, n);
+        for (int k = n - 1; k > 0; k--) {
+            minTree[k] = Math.min(minTree[2 * k], minTree[2 * k + 1]);
+            maxTree[k] = Math.max(maxTree[2 * k], maxTree[2 * k + 1]);
+        }
+        pointsCount = n;
+        indexValid = true;
+    }
+
+    private void ensureIndex() {
+        if (!indexValid) {
+            buildIndex();
+        }
+    }
+
+    // Наименьшее значение функции на отрезке [a, b] (NaN, если отрезок выходит за область определения).
+    // Концы отрезка, как и в integral, можно задавать в любом порядке
+    public double getMinValue(double a, double b) {
+        return extremum(a, b, false);
+    }
+
+    // Наибольшее значение функции на отрезке [a, b] (NaN, если отрезок выходит за область определения)
+    public double getMaxValue(double a, double b) {
+        return extremum(a, b, true);
+    }
+
+    private double extremum(double a, double b, boolean maximum) {
+        if (a > b) {
+            double t = a;
+            a = b;
+            b = t;
+        }
+        ensureIndex();
+        if (pointsCount == 0 || !(a >= xs[0]) || !(b <= xs[pointsCount - 1])) {
+            return Double.NaN;
+        }
+
+        double atA = function.getFunctionValue(a);
+        double atB = function.getFunctionValue(b);
+        double result = maximum ? Math.max(atA, atB) : Math.min(atA, atB);
+
+        int from = firstInside(a);
+        int to = lastInside(b);
+        if (from <= to) {
+            double inner = maximum ? query(maxTree, from, to, true) : query(minTree, from, to, false);
+            result = maximum ? Math.max(result, inner) : Math.min(result, inner);
+        }
+        return result;
+    }
+
+    // Номер первой точки с абсциссой не меньше a
+    private int firstInside(double a) {
+        return DoubleArrayTabulatedFunction.lowerBound(xs, pointsCount, a);
+    }
+
+    // Номер последней точки с абсциссой не больше b
+    private int lastInside(double b) {
+        return DoubleArrayTabulatedFunction.upperBound(xs, pointsCount, b) - 1;
+    }
+
+    // Минимум или максимум ординат точек с номерами [from, to] по дереву отрезков
+    private double query(double[] tree, int from, int to, boolean maximum) {
+        double result = maximum ? Double.NEGATIVE_INFINITY : Double.POSITIVE_INFINITY;
+        int left = from + pointsCount;
+        int right = to + pointsCount + 1;
+        while (left < right) {
+            if ((left & 1) == 1) {
+                result = maximum ? Math.max(result, tree[left]) : Math.min(result, tree[left]);
+                left++;
+            }
+            if ((right & 1) == 1) {
+                right--;
+                result = maximum ? Math.max(result, tree[right]) : Math.min(result, tree[right]);
+            }
+            left >>= 1;
+            right >>= 1;
+        }
+        return result;
+    }
+
+    // Прореживание для отрисовки: отрезок [a, b] делится на mins.length равных корзин,
+    // для каждой корзины записываются наименьшее и наибольшее значение функции на ней.
+    // Часть корзины вне области определения отбрасывается; корзина целиком вне её получает NaN
+    public void downsample(double a, double b, double[] mins, double[] maxs) {
+        if (a > b) {
+            throw new IllegalArgumentException("Левый конец отрезка больше правого");
+        }
+        if (mins.length != maxs.length) {
+            throw new IllegalArgumentException("Массивы минимумов и максимумов должны иметь одинаковую длину");
+        }
+        ensureIndex();
+        int buckets = mins.length;
+        double width = (b - a) / buckets;
+        double left = pointsCount == 0 ? Double.NaN : xs[0];
+        double right = pointsCount == 0 ? Double.NaN : xs[pointsCount - 1];
+        for (int k = 0; k < buckets; k++) {
+            double from = Math.max(a + k * width, left);
+            double to = Math.min(k == buckets - 1 ? b : a + (k + 1) * width, right);
+            if (!(from <= to)) {
+                mins[k] = Double.NaN;
+                maxs[k] = Double.NaN;
+                continue;
+            }
+
+            // Наименьшее и наибольшее значения - по одним и тем же концам и номерам точек
+            double atFrom = function.getFunctionValue(from);
+            double atTo = function.getFunctionValue(to);
+            double min = Math.min(atFrom, atTo);
+            double max = Math.max(atFrom, atTo);
+            int first = firstInside(from);
+            int last = lastInside(to);
+            if (first <= last) {
+                min = Math.min(min, query(minTree, first, last, false));
+                max = Math.max(max, query(maxTree, first, last, true));
+            }
+            mins[k] = min;
+            maxs[k] = max;
+        }
+    }
+
+    // Обновление листа дерева и его предков за O(log n)
+    private void updateY(int index, double y) {
+        int k = index + pointsCount;
+        minTree[k] = y;
+        maxTree[k] = y;
+        for (k >>= 1; k > 0; k >>= 1) {
+            minTree[k] = Math.min(minTree[2 * k], minTree[2 * k + 1]);
+            maxTree[k] = Math.max(maxTree[2 * k], maxTree[2 * k + 1]);
+        }
+    }
+
+    public double getLeftDomainBorder() {
+        return function.getLeftDomainBorder();
+    }
+
+    public double getRightDomainBorder() {
+        return function.getRightDomainBorder();
+    }
+
+    public double getFunctionValue(double x) {
+        return function.getFunctionValue(x);
+    }
+
+    public void getFunctionValues(double[] queries, int offset, int length, double[] out) {
+        function.getFunctionValues(queries, offset, length, out);
+    }
+
+    public double integral(double a, double b) {
+        return function.integral(a, b);
+    }
+
+    public FunctionCursor cursor() {
+        return function.cursor();
+    }
+
+    public FrozenTabulatedFunction freeze() {
+        return function.freeze();
+    }
+
+    public void forEachPoint(PointVisitor visitor) {
+        function.forEachPoint(visitor);
+    }
+
+    public PointCursor pointCursor() {
+        return function.pointCursor();
+    }
+
+    public void copyXs(double[] out) {
+        function.copyXs(out);
+    }
+
+    public void copyYs(double[] out) {
+        function.copyYs(out);
+    }
+
+    public Spliterator<FunctionPoint> pointSpliterator() {
+        return function.pointSpliterator();
+    }
+
+    public Spliterator<FunctionSegment> segmentSpliterator() {
+        return function.segmentSpliterator();
+    }
+
+    public Spliterator.OfDouble xSpliterator() {
+        return function.xSpliterator();
+    }
+
+    public Spliterator.OfDouble ySpliterator() {
+        return function.ySpliterator();
+    }
+
+    public int getPointsCount() {
+        return function.getPointsCount();
+    }
+
+    public FunctionPoint getPoint(int index) {
+        return function.getPoint(index);
+    }
+
+    public double getPointX(int index) {
+        return function.getPointX(index);
+    }
+
+    public double getPointY(int index) {
+        return function.getPointY(index);
+    }
+
+    // Изменения передаются обёрнутой функции и после успешного выполнения отражаются в индексе
+    public void setPoint(int index, FunctionPoint point) throws InappropriateFunctionPointException {
+        function.setPoint(index, point);
+        if (indexValid) {
+            xs[index] = point.getX();
+            updateY(index, point.getY());
+        }
+    }
+
+    public void setPointX(int index, double x) throws InappropriateFunctionPointException {
+        function.setPointX(index, x);
+        if (indexValid) {
+            xs[index] = x;
+        }
+    }
+
+    public void setPointY(int index, double y) {
+        function.setPointY(index, y);
+        if (indexValid) {
+            updateY(index, y);
+        }
+    }
+
+    public void deletePoint(int index) {
+        function.deletePoint(index);
+        indexValid = false;
+    }
+
+    public void addPoint(FunctionPoint point) throws InappropriateFunctionPointException {
+        function.addPoint(point);
+        indexValid = false;
+    }
+
+    public void retainPoints(boolean[] keep) {
+        function.retainPoints(keep);
+        indexValid = false;
+    }
+}
@@ -0,0 +1,51 @@
+package functions;
+
+// Дерево Фенвика над площадями интервалов табулированной функции (площадями трапеций).
+// Сумма площадей первых k интервалов и замена площади одного интервала выполняются за O(log n),
+// построение по готовому массиву площадей - за O(n).
+// Площадь хранится и отдельно, чтобы при замене прибавлялась разность с точным прежним значением.
+final class SegmentAreaTree {
+    // Элемент i (с единицы) - сумма площадей интервалов (i - (i & -i), i]
+    private final double[] tree;
+    private final double[] areas;
+
+    // Построение по площадям интервалов (массив переходит во владение объекта)
+    SegmentAreaTree(double[] areas) {
+        this.areas = areas;
+        this.tree = new double[areas.length + 1];
+        for (int i = 1; i <= areas.length; i++) {
+            tree[i] += areas[i - 1];
+            int parent = i + (i & -i);
+            if (parent <= areas.length) {
+                tree[parent] += tree[i];
+            }
+        }
+    }
+
+    // Площадь трапеции под отрезком [(x1, y1), (x2, y2)]
+    static double trapezoid(double x1, double y1, double x2, double y2) {
+        return (x2 - x1) * (y1 + y2) / 2;
+    }
+
+    int size() {
+        return areas.length;
+    }
+
+    // Замена площади интервала с номером segment
+    void set(int segment, double area) {
+        double delta = area - areas[segment];
+        areas[segment] = area;
+        for (int i = segment + 1; i <= areas.length; i += i & -i) {
+            tree[i] += delta;
+        }
+    }
+
+    // Сумма площадей интервалов с номерами [0, count)
+    double prefixSum(int count) {
+        double sum = 0;
+        for (int i = count; i > 0; i -= i & -i) {
+            sum += tree[i];
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,21 @@
+package functions;
+
+// Линейная интерполяция по заранее вычисленному наклону интервала (без деления).
+// Значение вычисляется от левого узла интервала: y = y_i + k * (x - x_i). Такая форма, в отличие от
+// y = k * x + b, не теряет точность при |x|, много больших длины интервала.
+// Наклон зависит только от концов интервала, поэтому кэши наклонов заполняются при чтении
+// без синхронизации: читатели, одновременно вычислившие наклон, записывают одно и то же значение.
+final class SegmentInterpolation {
+    private SegmentInterpolation() {
+    }
+
+    // Наклон интервала [(x1, y1), (x2, y2)]
+    static double slope(double x1, double y1, double x2, double y2) {
+        return (y2 - y1) / (x2 - x1);
+    }
+
+    // Значение на интервале с левым узлом (leftX, leftY) и наклоном slope
+    static double value(double leftX, double leftY, double slope, double x) {
+        return leftY + slope * (x - leftX);
+    }
+}
@@ -0,0 +1,54 @@
+package functions;
+
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+// Разделяемый итератор интервалов функции. Диапазон точек [index, fence) содержит
+// fence - index - 1 интервалов; при делении граничная точка входит в обе части
+class SegmentSpliterator implements Spliterator<FunctionSegment> {
+    private final PointRange range;
+
+    SegmentSpliterator(PointRange range) {
+        this.range = range;
+    }
+
+    public boolean tryAdvance(Consumer<? super FunctionSegment> action) {
+        if (range.fence - range.index < 2) {
+            return false;
+        }
+        action.accept(nextSegment());
+        return true;
+    }
+
+    public void forEachRemaining(Consumer<? super FunctionSegment> action) {
+        while (range.fence - range.index >= 2) {
+            action.accept(nextSegment());
+        }
+    }
+
+    // Интервал от текущей точки до следующей; диапазон остаётся на его правом конце
+    private FunctionSegment nextSegment() {
+        range.checkForComodification();
+        double leftX = range.x();
+        double leftY = range.y();
+        range.advance();
+        return new FunctionSegment(leftX, leftY, range.x(), range.y());
+    }
+
+    public Spliterator<FunctionSegment> trySplit() {
+        // Деление по номерам интервалов [index, fence - 1)
+        int middle = (range.index + range.fence - 1) >>> 1;
+        if (middle <= range.index) {
+            return null;
+        }
+        return new SegmentSpliterator(range.split(middle, middle + 1));
+    }
+
+    public long estimateSize() {
+        return Math.max(range.fence - range.index - 1, 0);
+    }
+
+    public int characteristics() {
+        return ORDERED | SIZED | SUBSIZED | NONNULL;
+    }
+}
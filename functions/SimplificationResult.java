@@ -0,0 +1,40 @@
+package functions;
+
+// Результат упрощения табулированной функции (см. TabulatedFunctionSimplifier)
+public final class SimplificationResult {
+    private final TabulatedFunction function;
+    private final int originalPointsCount;
+    private final int pointsCount;
+    private final double maxError;
+
+    SimplificationResult(TabulatedFunction function, int originalPointsCount, int pointsCount, double maxError) {
+        this.function = function;
+        this.originalPointsCount = originalPointsCount;
+        this.pointsCount = pointsCount;
+        this.maxError = maxError;
+    }
+
+    // Упрощённая функция (при упрощении на месте - исходная функция)
+    public TabulatedFunction getFunction() {
+        return function;
+    }
+
+    public int getOriginalPointsCount() {
+        return originalPointsCount;
+    }
+
+    public int getPointsCount() {
+        return pointsCount;
+    }
+
+    // Коэффициент сжатия: во сколько раз уменьшилось количество точек
+    public double getCompressionRatio() {
+        return (double) originalPointsCount / pointsCount;
+    }
+
+    // Достигнутая погрешность: наибольшее отклонение упрощённой функции от исходной
+    // по вертикали на всей области определения (оно достигается в одной из удалённых точек)
+    public double getMaxError() {
+        return maxError;
+    }
+}
@@ -1,5 +1,10 @@
 package functions;
 
+import java.util.Spliterator;
+import java.util.stream.DoubleStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
 public interface TabulatedFunction {
     // Методы получения границ области определения
     double getLeftDomainBorder();
@@ -8,6 +13,136 @@ public interface TabulatedFunction {
     // Метод получения значения функции
     double getFunctionValue(double x);
     
+    // Метод получения значений функции сразу для массива аргументов (результат в out)
+    default void getFunctionValues(double[] xs, double[] out) {
+        getFunctionValues(xs, 0, xs.length, out);
+    }
+    
+    // Метод получения значений функции для аргументов xs[offset .. offset + length)
+    // (результат в out[offset .. offset + length), остальные элементы out не изменяются)
+    default void getFunctionValues(double[] xs, int offset, int length, double[] out) {
+        DoubleArrayTabulatedFunction.checkRange(xs, offset, length, out);
+        for (int i = offset; i < offset + length; i++) {
+            out[i] = getFunctionValue(xs[i]);
+        }
+    }
+    
+    // Метод вычисления определённого интеграла кусочно-линейной функции от a до b
+    // (точно, как сумма площадей трапеций; NaN, если отрезок выходит за область определения)
+    default double integral(double a, double b) {
+        if (a > b) {
+            return -integral(b, a);
+        }
+        int pointsCount = getPointsCount();
+        if (pointsCount == 0 || !(a >= getLeftDomainBorder()) || !(b <= getRightDomainBorder())) {
+            return Double.NaN;
+        }
+        
+        double sum = 0;
+        for (int i = 0; i < pointsCount - 1; i++) {
+            double x1 = getPointX(i);
+            double x2 = getPointX(i + 1);
+            double from = Math.max(a, x1);
+            double to = Math.min(b, x2);
+            if (from < to) {
+                double y1 = getPointY(i);
+                double slope = (getPointY(i + 1) - y1) / (x2 - x1);
+                sum += SegmentAreaTree.trapezoid(from, y1 + slope * (from - x1), to, y1 + slope * (to - x1));
+            }
+        }
+        return sum;
+    }
+    
+    // Метод получения курсора для последовательных вычислений значений
+    default FunctionCursor cursor() {
+        return new IndexFunctionCursor(this);
+    }
+    
+    // Метод получения неизменяемой компактной копии функции
+    default FrozenTabulatedFunction freeze() {
+        int pointsCount = getPointsCount();
+        double[] xs = new double[pointsCount];
+        double[] ys = new double[pointsCount];
+        copyXs(xs);
+        copyYs(ys);
+        return new FrozenTabulatedFunction(xs, ys);
+    }
+    
+    // Методы обхода точек без создания объектов FunctionPoint
+    default void forEachPoint(PointVisitor visitor) {
+        int pointsCount = getPointsCount();
+        for (int i = 0; i < pointsCount; i++) {
+            visitor.visit(getPointX(i), getPointY(i));
+        }
+    }
+    
+    default PointCursor pointCursor() {
+        return new IndexPointCursor(this);
+    }
+    
+    // Методы копирования абсцисс и ординат всех точек в начало массива out
+    default void copyXs(double[] out) {
+        int pointsCount = getPointsCount();
+        if (out.length < pointsCount) {
+            throw new IllegalArgumentException("Массив короче количества точек");
+        }
+        for (int i = 0; i < pointsCount; i++) {
+            out[i] = getPointX(i);
+        }
+    }
+    
+    default void copyYs(double[] out) {
+        int pointsCount = getPointsCount();
+        if (out.length < pointsCount) {
+            throw new IllegalArgumentException("Массив короче количества точек");
+        }
+        for (int i = 0; i < pointsCount; i++) {
+            out[i] = getPointY(i);
+        }
+    }
+    
+    // Методы получения разделяемых итераторов точек, интервалов между соседними точками,
+    // абсцисс и ординат. Итераторы упорядочены, знают точный размер своих частей и делятся
+    // пополам по номерам точек, что позволяет обрабатывать их параллельными потоками
+    default Spliterator<FunctionPoint> pointSpliterator() {
+        return new PointSpliterator(new IndexPointRange(this, 0, getPointsCount()));
+    }
+    
+    default Spliterator<FunctionSegment> segmentSpliterator() {
+        return new SegmentSpliterator(new IndexPointRange(this, 0, getPointsCount()));
+    }
+    
+    default Spliterator.OfDouble xSpliterator() {
+        return new CoordinateSpliterator(new IndexPointRange(this, 0, getPointsCount()), false);
+    }
+    
+    default Spliterator.OfDouble ySpliterator() {
+        return new CoordinateSpliterator(new IndexPointRange(this, 0, getPointsCount()), true);
+    }
+    
+    // Методы получения потоков (Stream) по итераторам. Параллельная обработка интервалов
+    // и координат включается методом parallel() полученного потока.
+    // Функцию нельзя изменять, пока поток не обработан
+    default Stream<FunctionPoint> stream() {
+        return StreamSupport.stream(pointSpliterator(), false);
+    }
+    
+    default Stream<FunctionPoint> parallelStream() {
+        return StreamSupport.stream(pointSpliterator(), true);
+    }
+    
+    default Stream<FunctionSegment> segmentStream() {
+        return StreamSupport.stream(segmentSpliterator(), false);
+    }
+    
+    default DoubleStream xStream() {
+        return StreamSupport.doubleStream(xSpliterator(), false);
+    }
+    
+    default DoubleStream yStream() {
+        return StreamSupport.doubleStream(ySpliterator(), false);
+    }
+    
     // Методы работы с точками
     int getPointsCount();
     FunctionPoint getPoint(int index);
@@ -18,4 +153,15 @@ public interface TabulatedFunction {
     void setPointY(int index, double y);
     void deletePoint(int index);
     void addPoint(FunctionPoint point) throws InappropriateFunctionPointException;
+    
+    // Метод удаления всех точек i, для которых keep[i] == false (длина keep равна количеству
+    // точек, сохраняется не менее двух точек). Реализации пакета удаляют точки одним проходом
+    default void retainPoints(boolean[] keep) {
+        DoubleArrayTabulatedFunction.checkKeep(keep, getPointsCount());
+        for (int i = keep.length - 1; i >= 0; i--) {
+            if (!keep[i]) {
+                deletePoint(i);
+            }
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,139 @@
+package functions;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+// Запись табулированных функций в компактный двоичный файл и чтение их без копирования.
+//
+// Формат файла (порядок байтов little-endian):
+//   int    сигнатура 'TABF'
+//   int    версия формата (1)
+//   int    количество точек n
+//   int    флаги (бит 0 - точки лежат на равномерной сетке)
+//   double левая граница области определения
+//   double правая граница области определения
+//   double[n] абсциссы точек
+//   double[n] ординаты точек
+public final class TabulatedFunctionFiles {
+    public static final int MAGIC = 0x46424154;
+    public static final int VERSION = 1;
+    public static final int FLAG_UNIFORM_GRID = 1;
+
+    // Размер заголовка в байтах
+    static final int HEADER_SIZE = 32;
+
+    // Размер буфера записи
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final double EPSILON = 1e-10;
+
+    private TabulatedFunctionFiles() {
+    }
+
+    // Запись функции в файл (файл создаётся или перезаписывается)
+    public static void write(TabulatedFunction function, Path path) throws IOException {
+        int pointsCount = function.getPointsCount();
+        double leftX = function.getLeftDomainBorder();
+        double rightX = function.getRightDomainBorder();
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+
+            // Место под заголовок; флаг равномерной сетки выясняется при записи абсцисс
+            channel.position(HEADER_SIZE);
+
+            // Столбцы записываются последовательно; точки перебираются по порядку,
+            // что для LinkedListTabulatedFunction обходится без поиска узлов
+            double step = (rightX - leftX) / (pointsCount - 1);
+            boolean uniformGrid = true;
+            for (int i = 0; i < pointsCount; i++) {
+                double x = function.getPointX(i);
+                if (uniformGrid && Math.abs(leftX + i * step - x) >= EPSILON) {
+                    uniformGrid = false;
+                }
+                putDouble(channel, buffer, x);
+            }
+            for (int i = 0; i < pointsCount; i++) {
+                putDouble(channel, buffer, function.getPointY(i));
+            }
+            flush(channel, buffer);
+
+            // Заголовок записывается в начало файла последним
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            header.putInt(MAGIC);
+            header.putInt(VERSION);
+            header.putInt(pointsCount);
+            header.putInt(uniformGrid ? FLAG_UNIFORM_GRID : 0);
+            header.putDouble(leftX);
+            header.putDouble(rightX);
+            header.flip();
+            while (header.hasRemaining()) {
+                channel.write(header, header.position());
+            }
+        }
+    }
+
+    private static void putDouble(FileChannel channel, ByteBuffer buffer, double value) throws IOException {
+        if (buffer.remaining() < Double.BYTES) {
+            flush(channel, buffer);
+        }
+        buffer.putDouble(value);
+    }
+
+    private static void flush(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    // Открытие файла функции через отображение в память.
+    // Точки не копируются и не разбираются: возвращаемая функция доступна только для чтения
+    // и обращается к отображённому файлу напрямую
+    public static TabulatedFunction map(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            if (fileSize < HEADER_SIZE) {
+                throw new IOException("Файл слишком мал для заголовка функции: " + path);
+            }
+
+            ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE)
+                    .order(ByteOrder.LITTLE_ENDIAN);
+            if (header.getInt(0) != MAGIC) {
+                throw new IOException("Файл не является файлом табулированной функции: " + path);
+            }
+            int version = header.getInt(4);
+            if (version != VERSION) {
+                throw new IOException("Неподдерживаемая версия формата: " + version);
+            }
+            int pointsCount = header.getInt(8);
+            int flags = header.getInt(12);
+            double leftX = header.getDouble(16);
+            double rightX = header.getDouble(24);
+
+            if (pointsCount < 2) {
+                throw new IOException("Некорректное количество точек: " + pointsCount);
+            }
+            long columnSize = (long) pointsCount * Double.BYTES;
+            if (fileSize < HEADER_SIZE + 2 * columnSize) {
+                throw new IOException("Файл функции обрезан: " + path);
+            }
+            if (columnSize > Integer.MAX_VALUE) {
+                throw new IOException("Столбец точек превышает 2 ГБ и не может быть отображён: " + path);
+            }
+
+            MappedByteBuffer xs = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_SIZE, columnSize);
+            MappedByteBuffer ys = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_SIZE + columnSize, columnSize);
+            return new MappedTabulatedFunction(
+                    xs.order(ByteOrder.LITTLE_ENDIAN).asDoubleBuffer(),
+                    ys.order(ByteOrder.LITTLE_ENDIAN).asDoubleBuffer(),
+                    pointsCount, (flags & FLAG_UNIFORM_GRID) != 0, leftX, rightX);
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package functions;
+
+import java.util.concurrent.atomic.LongAdder;
+
+// Метрики использования табулированной функции, собираемые InstrumentedTabulatedFunction.
+// Счётчики основаны на LongAdder и пополняются без блокировок из любых потоков.
+// Объект является стандартным MBean и может быть зарегистрирован в сервере JMX.
+public class TabulatedFunctionMetrics implements TabulatedFunctionMetricsMBean {
+    private final TabulatedFunction function;
+
+    final LongAdder lookups = new LongAdder();
+    final LongAdder outOfDomain = new LongAdder();
+    final LongAdder pointReads = new LongAdder();
+    final LongAdder mutations = new LongAdder();
+    final LongAdder failedMutations = new LongAdder();
+    final LatencyHistogram lookupLatency = new LatencyHistogram();
+    final LatencyHistogram mutationLatency = new LatencyHistogram();
+
+    // Значения счётчиков списка на момент последнего обнуления (счётчики самого списка не обнуляются)
+    private volatile long cacheHitsBase;
+    private volatile long cacheNeighborHitsBase;
+    private volatile long cacheMissesBase;
+
+    // У списка включается сбор статистики обращений по номеру (по умолчанию он выключен)
+    TabulatedFunctionMetrics(TabulatedFunction function) {
+        this.function = function;
+        if (function instanceof LinkedListTabulatedFunction) {
+            LinkedListTabulatedFunction list = (LinkedListTabulatedFunction) function;
+            list.setCacheStatisticsEnabled(true);
+            cacheHitsBase = list.getCacheHitCount();
+            cacheNeighborHitsBase = list.getCacheNeighborHitCount();
+            cacheMissesBase = list.getCacheMissCount();
+        }
+    }
+
+    public String getImplementation() {
+        return function.getClass().getName();
+    }
+
+    public int getPointsCount() {
+        return function.getPointsCount();
+    }
+
+    public long getLookupCount() {
+        return lookups.sum();
+    }
+
+    public long getOutOfDomainCount() {
+        return outOfDomain.sum();
+    }
+
+    public double getOutOfDomainRatio() {
+        long count = lookups.sum();
+        return count == 0 ? 0 : (double) outOfDomain.sum() / count;
+    }
+
+    public long getPointReadCount() {
+        return pointReads.sum();
+    }
+
+    public long getMutationCount() {
+        return mutations.sum();
+    }
+
+    public long getFailedMutationCount() {
+        return failedMutations.sum();
+    }
+
+    public long getLookupLatencySampleCount() {
+        return lookupLatency.getCount();
+    }
+
+    public double getLookupLatencyMeanNanos() {
+        return lookupLatency.getMeanNanos();
+    }
+
+    public long getLookupLatencyP50Nanos() {
+        return lookupLatency.getQuantileNanos(0.5);
+    }
+
+    public long getLookupLatencyP99Nanos() {
+        return lookupLatency.getQuantileNanos(0.99);
+    }
+
+    public long getLookupLatencyP999Nanos() {
+        return lookupLatency.getQuantileNanos(0.999);
+    }
+
+    public double getMutationLatencyMeanNanos() {
+        return mutationLatency.getMeanNanos();
+    }
+
+    public long getMutationLatencyP50Nanos() {
+        return mutationLatency.getQuantileNanos(0.5);
+    }
+
+    public long getMutationLatencyP99Nanos() {
+        return mutationLatency.getQuantileNanos(0.99);
+    }
+
+    public long getCacheHitCount() {
+        if (function instanceof LinkedListTabulatedFunction) {
+            return ((LinkedListTabulatedFunction) function).getCacheHitCount() - cacheHitsBase;
+        }
+        return -1;
+    }
+
+    public long getCacheNeighborHitCount() {
+        if (function instanceof LinkedListTabulatedFunction) {
+            return ((LinkedListTabulatedFunction) function).getCacheNeighborHitCount() - cacheNeighborHitsBase;
+        }
+        return -1;
+    }
+
+    public long getCacheMissCount() {
+        if (function instanceof LinkedListTabulatedFunction) {
+            return ((LinkedListTabulatedFunction) function).getCacheMissCount() - cacheMissesBase;
+        }
+        return -1;
+    }
+
+    // Гистограмма длительностей вычисления значения
+    public LatencyHistogram getLookupLatency() {
+        return lookupLatency;
+    }
+
+    // Гистограмма длительностей изменений точек
+    public LatencyHistogram getMutationLatency() {
+        return mutationLatency;
+    }
+
+    public void reset() {
+        lookups.reset();
+        outOfDomain.reset();
+        pointReads.reset();
+        mutations.reset();
+        failedMutations.reset();
+        lookupLatency.reset();
+        mutationLatency.reset();
+        if (function instanceof LinkedListTabulatedFunction) {
+            LinkedListTabulatedFunction list = (LinkedListTabulatedFunction) function;
+            cacheHitsBase = list.getCacheHitCount();
+            cacheNeighborHitsBase = list.getCacheNeighborHitCount();
+            cacheMissesBase = list.getCacheMissCount();
+        }
+    }
+}
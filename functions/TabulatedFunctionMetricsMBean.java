@@ -0,0 +1,41 @@
+package functions;
+
+// Интерфейс управления JMX для метрик табулированной функции (см. TabulatedFunctionMetrics).
+// Длительности в наносекундах; квантили оцениваются сверху с точностью до множителя 2.
+public interface TabulatedFunctionMetricsMBean {
+    // Класс функции и текущее количество точек
+    String getImplementation();
+    int getPointsCount();
+
+    // Вычисления значений: количество, результаты NaN (аргумент вне области определения) и их доля
+    long getLookupCount();
+    long getOutOfDomainCount();
+    double getOutOfDomainRatio();
+
+    // Обращения к точкам по номеру
+    long getPointReadCount();
+
+    // Изменения точек: успешные и отклонённые исключением
+    long getMutationCount();
+    long getFailedMutationCount();
+
+    // Длительности вычисления значения (по выборке вызовов)
+    long getLookupLatencySampleCount();
+    double getLookupLatencyMeanNanos();
+    long getLookupLatencyP50Nanos();
+    long getLookupLatencyP99Nanos();
+    long getLookupLatencyP999Nanos();
+
+    // Длительности изменений точек (по всем вызовам)
+    double getMutationLatencyMeanNanos();
+    long getMutationLatencyP50Nanos();
+    long getMutationLatencyP99Nanos();
+
+    // Статистика обращений по номеру в LinkedListTabulatedFunction (-1 для других реализаций)
+    long getCacheHitCount();
+    long getCacheNeighborHitCount();
+    long getCacheMissCount();
+
+    // Обнуление всех счётчиков
+    void reset();
+}
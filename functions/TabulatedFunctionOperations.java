@@ -0,0 +1,347 @@
+package functions;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.DoubleBinaryOperator;
+import java.util.function.DoubleUnaryOperator;
+
+// Поточечные операции над табулированными функциями.
+// Две функции объединяются одним проходом слиянием по объединению их сеток абсцисс
+// (на пересечении областей определения) за O(n + m); результат - новая функция
+// DoubleArrayTabulatedFunction над массивами примитивов. Точки, отстоящие от предыдущей
+// меньше чем на EPSILON, считаются совпадающими и пропускаются.
+// Сумма и разность кусочно-линейных функций вычисляются точно, произведение - в узлах
+// объединённой сетки (между узлами произведение квадратично и заменяется отрезками).
+// Точки исходных функций читаются из их снимков freeze(), поэтому каждая функция читается
+// согласованно, даже если её изменяют другие потоки. Параллельные варианты делят работу
+// на порции и выполняют их в пуле ParallelEvaluator.
+public final class TabulatedFunctionOperations {
+    private static final double EPSILON = 1e-10;
+
+    private TabulatedFunctionOperations() {
+    }
+
+    // Сумма f(x) + g(x)
+    public static DoubleArrayTabulatedFunction sum(TabulatedFunction f, TabulatedFunction g) {
+        return combine(f, g, Double::sum);
+    }
+
+    // Разность f(x) - g(x)
+    public static DoubleArrayTabulatedFunction difference(TabulatedFunction f, TabulatedFunction g) {
+        return combine(f, g, (a, b) -> a - b);
+    }
+
+    // Произведение f(x) * g(x)
+    public static DoubleArrayTabulatedFunction product(TabulatedFunction f, TabulatedFunction g) {
+        return combine(f, g, (a, b) -> a * b);
+    }
+
+    // Сумма f(x) + c
+    public static DoubleArrayTabulatedFunction sum(TabulatedFunction f, double c) {
+        return mapValues(f, y -> y + c);
+    }
+
+    // Произведение c * f(x)
+    public static DoubleArrayTabulatedFunction product(TabulatedFunction f, double c) {
+        return mapValues(f, y -> c * y);
+    }
+
+    // Функция с теми же абсциссами и ординатами operator(y)
+    private static DoubleArrayTabulatedFunction mapValues(TabulatedFunction f, DoubleUnaryOperator operator) {
+        Columns source = Columns.of(f);
+        double[] xs = new double[source.count];
+        double[] ys = new double[source.count];
+        System.arraycopy(source.xs, 0, xs, 0, source.count);
+        for (int i = 0; i < source.count; i++) {
+            ys[i] = operator.applyAsDouble(source.ys[i]);
+        }
+        return new DoubleArrayTabulatedFunction(xs, ys, source.count);
+    }
+
+    // Произвольная поточечная операция operator(f(x), g(x))
+    public static DoubleArrayTabulatedFunction combine(TabulatedFunction f, TabulatedFunction g,
+                                                       DoubleBinaryOperator operator) {
+        Merge merge = new Merge(Columns.of(f), Columns.of(g), operator, 1);
+        return merge.build(0).toFunction();
+    }
+
+    // Параллельный вариант combine: объединённая сетка делится на порции не меньше порога evaluator
+    public static DoubleArrayTabulatedFunction combine(TabulatedFunction f, TabulatedFunction g,
+                                                       DoubleBinaryOperator operator, ParallelEvaluator evaluator) {
+        Columns fc = Columns.of(f);
+        Columns gc = Columns.of(g);
+        int chunks = Math.max(1, (fc.count + gc.count) / evaluator.getThreshold());
+        Merge merge = new Merge(fc, gc, operator, chunks);
+        return run(merge, merge.chunks, evaluator.getPool()).toFunction();
+    }
+
+    // Композиция f(g(x)) на области определения g. Узлы результата - узлы g и точки,
+    // в которых g проходит через абсциссы узлов f, поэтому композиция вычисляется точно.
+    // Значения g должны лежать в области определения f
+    public static DoubleArrayTabulatedFunction compose(TabulatedFunction f, TabulatedFunction g) {
+        Composition composition = new Composition(Columns.of(f), Columns.of(g), 1);
+        return composition.build(0).toFunction();
+    }
+
+    // Параллельный вариант compose: интервалы g делятся на порции не меньше порога evaluator
+    public static DoubleArrayTabulatedFunction compose(TabulatedFunction f, TabulatedFunction g,
+                                                       ParallelEvaluator evaluator) {
+        Columns fc = Columns.of(f);
+        Columns gc = Columns.of(g);
+        int chunks = Math.max(1, (gc.count - 1) / evaluator.getThreshold());
+        Composition composition = new Composition(fc, gc, chunks);
+        return run(composition, chunks, evaluator.getPool()).toFunction();
+    }
+
+    // Построение порций в пуле и их склейка по порядку
+    private static Columns run(ChunkBuilder builder, int chunks, ForkJoinPool pool) {
+        Columns[] parts = new Columns[chunks];
+        if (chunks == 1) {
+            parts[0] = builder.build(0);
+        } else {
+            pool.invoke(new ChunkTask(builder, parts, 0, chunks));
+        }
+        int total = 0;
+        for (Columns part : parts) {
+            total += part.count;
+        }
+        Columns result = new Columns(total);
+        for (Columns part : parts) {
+            for (int i = 0; i < part.count; i++) {
+                result.add(part.xs[i], part.ys[i]);
+            }
+        }
+        return result;
+    }
+
+    // Значение на интервале [xs[i - 1], xs[i]], содержащем x
+    private static double interpolate(double[] xs, double[] ys, int i, double x) {
+        if (Math.abs(x - xs[i - 1]) < EPSILON) {
+            return ys[i - 1];
+        }
+        if (Math.abs(x - xs[i]) < EPSILON) {
+            return ys[i];
+        }
+        return ys[i - 1] + (ys[i] - ys[i - 1]) * (x - xs[i - 1]) / (xs[i] - xs[i - 1]);
+    }
+
+    // Столбцы точек с запасом места, заполняемые по возрастанию абсцисс
+    private static final class Columns {
+        double[] xs;
+        double[] ys;
+        int count;
+
+        Columns(int capacity) {
+            xs = new double[Math.max(capacity, 2)];
+            ys = new double[xs.length];
+        }
+
+        private Columns(double[] xs, double[] ys, int count) {
+            this.xs = xs;
+            this.ys = ys;
+            this.count = count;
+        }
+
+        // Точки функции по её снимку. Столбцы снимка не копируются и не должны изменяться
+        static Columns of(TabulatedFunction function) {
+            FrozenTabulatedFunction snapshot = function.freeze();
+            return new Columns(snapshot.xColumn(), snapshot.yColumn(), snapshot.getPointsCount());
+        }
+
+        // Добавление точки (пропускается, если совпадает с предыдущей с точностью EPSILON)
+        void add(double x, double y) {
+            if (count > 0 && x - xs[count - 1] < EPSILON) {
+                return;
+            }
+            if (count == xs.length) {
+                int capacity = count + (count >> 1) + 1;
+                double[] newXs = new double[capacity];
+                double[] newYs = new double[capacity];
+                System.arraycopy(xs, 0, newXs, 0, count);
+                System.arraycopy(ys, 0, newYs, 0, count);
+                xs = newXs;
+                ys = newYs;
+            }
+            xs[count] = x;
+            ys[count] = y;
+            count++;
+        }
+
+        // Массивы переходят во владение функции
+        DoubleArrayTabulatedFunction toFunction() {
+            return new DoubleArrayTabulatedFunction(xs, ys, count);
+        }
+    }
+
+    // Построение части результата с номером chunk
+    private interface ChunkBuilder {
+        Columns build(int chunk);
+    }
+
+    // Задача построения порций с номерами [from, to)
+    private static class ChunkTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final ChunkBuilder builder;
+        private final Columns[] parts;
+        private final int from;
+        private final int to;
+
+        ChunkTask(ChunkBuilder builder, Columns[] parts, int from, int to) {
+            this.builder = builder;
+            this.parts = parts;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                parts[from] = builder.build(from);
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new ChunkTask(builder, parts, from, middle), new ChunkTask(builder, parts, middle, to));
+        }
+    }
+
+    // Слияние сеток двух функций на пересечении областей определения [left, right].
+    // Границы порций - абсциссы узлов функции, у которой на пересечении больше узлов
+    private static final class Merge implements ChunkBuilder {
+        private final Columns f;
+        private final Columns g;
+        private final DoubleBinaryOperator operator;
+        private final double right;
+        // Границы порций: порция k - абсциссы [bounds[k], bounds[k + 1]), последняя - до right включительно
+        private final double[] bounds;
+        final int chunks;
+
+        Merge(Columns f, Columns g, DoubleBinaryOperator operator, int chunks) {
+            double left = Math.max(f.xs[0], g.xs[0]);
+            double right = Math.min(f.xs[f.count - 1], g.xs[g.count - 1]);
+            if (!(right - left >= EPSILON)) {
+                throw new IllegalArgumentException("Области определения функций не пересекаются");
+            }
+            this.f = f;
+            this.g = g;
+            this.operator = operator;
+            this.right = right;
+
+            int fFrom = DoubleArrayTabulatedFunction.lowerBound(f.xs, f.count, left);
+            int fCount = DoubleArrayTabulatedFunction.upperBound(f.xs, f.count, right) - fFrom;
+            int gFrom = DoubleArrayTabulatedFunction.lowerBound(g.xs, g.count, left);
+            int gCount = DoubleArrayTabulatedFunction.upperBound(g.xs, g.count, right) - gFrom;
+            Columns driver = fCount >= gCount ? f : g;
+            int driverFrom = fCount >= gCount ? fFrom : gFrom;
+            int driverCount = Math.max(fCount, gCount);
+
+            this.chunks = Math.max(1, Math.min(chunks, driverCount - 1));
+            bounds = new double[this.chunks];
+            bounds[0] = left;
+            for (int k = 1; k < this.chunks; k++) {
+                bounds[k] = driver.xs[driverFrom + (int) ((long) k * driverCount / this.chunks)];
+            }
+        }
+
+        public Columns build(int chunk) {
+            boolean last = chunk == chunks - 1;
+            int i = DoubleArrayTabulatedFunction.lowerBound(f.xs, f.count, bounds[chunk]);
+            int j = DoubleArrayTabulatedFunction.lowerBound(g.xs, g.count, bounds[chunk]);
+            int iEnd;
+            int jEnd;
+            if (last) {
+                iEnd = DoubleArrayTabulatedFunction.upperBound(f.xs, f.count, right);
+                jEnd = DoubleArrayTabulatedFunction.upperBound(g.xs, g.count, right);
+            } else {
+                iEnd = DoubleArrayTabulatedFunction.lowerBound(f.xs, f.count, bounds[chunk + 1]);
+                jEnd = DoubleArrayTabulatedFunction.lowerBound(g.xs, g.count, bounds[chunk + 1]);
+            }
+            Columns result = new Columns(iEnd - i + jEnd - j);
+
+            // Абсцисса из одной сетки лежит внутри интервала другой, ограниченного следующим
+            // необработанным узлом, поэтому значение другой функции - интерполяция на этом интервале
+            while (i < iEnd || j < jEnd) {
+                double x;
+                double fValue;
+                double gValue;
+                if (j == jEnd || (i < iEnd && f.xs[i] < g.xs[j])) {
+                    x = f.xs[i];
+                    fValue = f.ys[i];
+                    gValue = interpolate(g.xs, g.ys, j, x);
+                    i++;
+                } else if (i == iEnd || g.xs[j] < f.xs[i]) {
+                    x = g.xs[j];
+                    gValue = g.ys[j];
+                    fValue = interpolate(f.xs, f.ys, i, x);
+                    j++;
+                } else {
+                    x = f.xs[i];
+                    fValue = f.ys[i];
+                    gValue = g.ys[j];
+                    i++;
+                    j++;
+                }
+                result.add(x, operator.applyAsDouble(fValue, gValue));
+            }
+            return result;
+        }
+    }
+
+    // Композиция f(g(x)): порция k - интервалы g с номерами [k * segments / chunks, (k + 1) * segments / chunks)
+    private static final class Composition implements ChunkBuilder {
+        private final Columns f;
+        private final Columns g;
+        private final int chunks;
+
+        Composition(Columns f, Columns g, int chunks) {
+            double left = f.xs[0];
+            double right = f.xs[f.count - 1];
+            for (int j = 0; j < g.count; j++) {
+                if (!(g.ys[j] >= left - EPSILON && g.ys[j] <= right + EPSILON)) {
+                    throw new IllegalArgumentException("Значения внутренней функции выходят за область определения внешней");
+                }
+            }
+            this.f = f;
+            this.g = g;
+            this.chunks = chunks;
+        }
+
+        // Значение f в точке y (y прижимается к области определения f)
+        private double outer(double y) {
+            double clamped = Math.min(Math.max(y, f.xs[0]), f.xs[f.count - 1]);
+            return DoubleArrayTabulatedFunction.valueAt(f.xs, f.ys, f.count, clamped);
+        }
+
+        public Columns build(int chunk) {
+            int segments = g.count - 1;
+            int from = (int) ((long) chunk * segments / chunks);
+            int to = (int) ((long) (chunk + 1) * segments / chunks);
+            Columns result = new Columns(to - from + 1);
+
+            for (int j = from; j < to; j++) {
+                double x1 = g.xs[j];
+                double x2 = g.xs[j + 1];
+                double a = g.ys[j];
+                double b = g.ys[j + 1];
+                result.add(x1, outer(a));
+
+                // Узлы f строго между a и b в порядке прохождения g
+                if (a < b) {
+                    int kEnd = DoubleArrayTabulatedFunction.lowerBound(f.xs, f.count, b);
+                    for (int k = DoubleArrayTabulatedFunction.upperBound(f.xs, f.count, a); k < kEnd; k++) {
+                        result.add(x1 + (f.xs[k] - a) * (x2 - x1) / (b - a), f.ys[k]);
+                    }
+                } else if (a > b) {
+                    int kEnd = DoubleArrayTabulatedFunction.upperBound(f.xs, f.count, b);
+                    for (int k = DoubleArrayTabulatedFunction.lowerBound(f.xs, f.count, a) - 1; k >= kEnd; k--) {
+                        result.add(x1 + (f.xs[k] - a) * (x2 - x1) / (b - a), f.ys[k]);
+                    }
+                }
+            }
+            if (to == segments) {
+                result.add(g.xs[segments], outer(g.ys[segments]));
+            }
+            return result;
+        }
+    }
+}
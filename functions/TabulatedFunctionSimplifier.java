@@ -0,0 +1,110 @@
+package functions;
+
+// Упрощение табулированных функций: удаление точек, без которых функция отклоняется
+// от исходной по вертикали не более чем на заданную погрешность epsilon.
+// Точки отбираются жадно за один проход (O(n)) методом конуса допустимых наклонов:
+// от опорной точки a отрезок продлевается до точки j, пока наклон из a в j проходит
+// через все коридоры [y_i - epsilon, y_i + epsilon] промежуточных точек; когда не проходит,
+// опорной становится предыдущая точка. Крайние точки всегда сохраняются, поэтому
+// область определения не меняется. Между точками исходной функции обе функции линейны,
+// поэтому отклонение на всей области определения не превышает отклонения в удалённых точках.
+public final class TabulatedFunctionSimplifier {
+    private TabulatedFunctionSimplifier() {
+    }
+
+    // Упрощённая копия функции над массивами примитивов (исходная функция не изменяется)
+    public static SimplificationResult simplify(TabulatedFunction function, double epsilon) {
+        int pointsCount = function.getPointsCount();
+        double[] xs = new double[pointsCount];
+        double[] ys = new double[pointsCount];
+        function.copyXs(xs);
+        function.copyYs(ys);
+        boolean[] keep = select(xs, ys, pointsCount, epsilon);
+        double maxError = maxError(xs, ys, pointsCount, keep);
+
+        int count = 0;
+        for (int i = 0; i < pointsCount; i++) {
+            if (keep[i]) {
+                xs[count] = xs[i];
+                ys[count] = ys[i];
+                count++;
+            }
+        }
+        return new SimplificationResult(new DoubleArrayTabulatedFunction(xs, ys, count), pointsCount, count, maxError);
+    }
+
+    // Упрощение на месте: лишние точки удаляются из самой функции методом retainPoints.
+    // Потокобезопасные функции отбирают и удаляют точки атомарно, под своей синхронизацией
+    public static SimplificationResult simplifyInPlace(TabulatedFunction function, double epsilon) {
+        if (function instanceof ConcurrentTabulatedFunction) {
+            return ((ConcurrentTabulatedFunction) function).simplifyInPlace(epsilon);
+        }
+        if (function instanceof CopyOnWriteTabulatedFunction) {
+            return ((CopyOnWriteTabulatedFunction) function).simplifyInPlace(epsilon);
+        }
+
+        int pointsCount = function.getPointsCount();
+        double[] xs = new double[pointsCount];
+        double[] ys = new double[pointsCount];
+        function.copyXs(xs);
+        function.copyYs(ys);
+        boolean[] keep = select(xs, ys, pointsCount, epsilon);
+        double maxError = maxError(xs, ys, pointsCount, keep);
+
+        function.retainPoints(keep);
+        return new SimplificationResult(function, pointsCount, function.getPointsCount(), maxError);
+    }
+
+    // Отбор сохраняемых точек
+    private static boolean[] select(double[] xs, double[] ys, int pointsCount, double epsilon) {
+        if (!(epsilon >= 0)) {
+            throw new IllegalArgumentException("Допустимая погрешность должна быть неотрицательной");
+        }
+        if (pointsCount < 2) {
+            throw new IllegalArgumentException("Количество точек должно быть не менее двух");
+        }
+        boolean[] keep = new boolean[pointsCount];
+        keep[0] = true;
+        keep[pointsCount - 1] = true;
+
+        // Конус [low, high] - наклоны из опорной точки, проходящие через коридоры всех точек после неё
+        int anchor = 0;
+        double low = Double.NEGATIVE_INFINITY;
+        double high = Double.POSITIVE_INFINITY;
+        int j = 1;
+        while (j < pointsCount) {
+            double dx = xs[j] - xs[anchor];
+            double slope = (ys[j] - ys[anchor]) / dx;
+            // Точка, следующая за опорной, подходит всегда
+            if (j == anchor + 1 || (slope >= low && slope <= high)) {
+                low = Math.max(low, (ys[j] - epsilon - ys[anchor]) / dx);
+                high = Math.min(high, (ys[j] + epsilon - ys[anchor]) / dx);
+                j++;
+            } else {
+                // Отрезок из опорной точки заканчивается в предыдущей точке
+                anchor = j - 1;
+                keep[anchor] = true;
+                low = Double.NEGATIVE_INFINITY;
+                high = Double.POSITIVE_INFINITY;
+            }
+        }
+        return keep;
+    }
+
+    // Наибольшее отклонение по вертикали в удалённых точках
+    private static double maxError(double[] xs, double[] ys, int pointsCount, boolean[] keep) {
+        double maxError = 0;
+        int left = 0;
+        for (int right = 1; right < pointsCount; right++) {
+            if (!keep[right]) {
+                continue;
+            }
+            double slope = (ys[right] - ys[left]) / (xs[right] - xs[left]);
+            for (int i = left + 1; i < right; i++) {
+                maxError = Math.max(maxError, Math.abs(ys[left] + slope * (xs[i] - xs[left]) - ys[i]));
+            }
+            left = right;
+        }
+        return maxError;
+    }
+}
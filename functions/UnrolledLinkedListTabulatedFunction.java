@@ -0,0 +1,703 @@
+package functions;
+
+import java.util.Spliterator;
+
+// Табулированная функция на развёрнутом связном списке: каждый элемент списка (блок) хранит
+// до BLOCK_CAPACITY точек в массивах примитивов. По сравнению с LinkedListTabulatedFunction,
+// где на точку приходятся два объекта (узел и FunctionPoint), памяти на точку нужно в несколько
+// раз меньше, а проход по точкам идёт по соседним ячейкам памяти. Вставка и удаление остаются
+// локальными: переполненный блок делится пополам, опустевший сливается с соседом.
+// Блоки дополнительно перечислены по порядку в массиве-оглавлении, поэтому блок по абсциссе
+// и по номеру точки находится двоичным поиском, а не проходом по списку.
+public class UnrolledLinkedListTabulatedFunction implements TabulatedFunction {
+    // Вместимость блока и наименьшее заполнение, ниже которого блок сливается с соседом
+    private static final int BLOCK_CAPACITY = 64;
+    private static final int MIN_BLOCK_FILL = BLOCK_CAPACITY / 4;
+
+    private static final double EPSILON = 1e-10;
+
+    // Блок точек: абсциссы и ординаты первых count элементов массивов
+    private static final class Block {
+        final double[] xs = new double[BLOCK_CAPACITY];
+        final double[] ys = new double[BLOCK_CAPACITY];
+        int count;
+        Block prev;
+        Block next;
+        // Позиция блока в оглавлении
+        int slot;
+    }
+
+    // Первый и последний блоки (список всегда содержит хотя бы один блок)
+    private Block first;
+    private Block last;
+    private int pointsCount;
+
+    // Оглавление: блоки по порядку и номера их первых точек. Номера первых точек верны
+    // только у первых startsValid блоков: изменение блока сбрасывает их у следующих блоков,
+    // а пересчитываются они при поиске по номеру и только до нужного блока
+    private Block[] blocks = new Block[4];
+    private int[] starts = new int[4];
+    private int blockCount;
+    private int startsValid;
+
+    // Счётчик вставок и удалений точек для курсоров обхода
+    private int modCount;
+
+    // Последний найденный блок и номер его первой точки.
+    // Пара хранится одним неизменяемым объектом, как в LinkedListTabulatedFunction
+    private BlockCache lastAccessed;
+
+    private static final class BlockCache {
+        final Block block;
+        final int start;
+
+        BlockCache(Block block, int start) {
+            this.block = block;
+            this.start = start;
+        }
+    }
+
+    // Конструктор по умолчанию (функция без точек)
+    public UnrolledLinkedListTabulatedFunction() {
+        first = new Block();
+        last = first;
+        blocks[0] = first;
+        blockCount = 1;
+        lastAccessed = new BlockCache(first, 0);
+    }
+
+    public UnrolledLinkedListTabulatedFunction(double leftX, double rightX, int pointsCount) {
+        this(leftX, rightX, new double[checkPointsCount(pointsCount)]);
+    }
+
+    public UnrolledLinkedListTabulatedFunction(double leftX, double rightX, double[] values) {
+        this();
+        // Проверка условий конструктора
+        if (leftX >= rightX) {
+            throw new IllegalArgumentException("Левая граница должна быть меньше правой");
+        }
+        checkPointsCount(values.length);
+
+        // Блоки заполняются целиком: вставки делят их по мере необходимости
+        double step = (rightX - leftX) / (values.length - 1);
+        Block block = first;
+        for (int i = 0; i < values.length; i++) {
+            if (block.count == BLOCK_CAPACITY) {
+                block = insertBlockAfter(block);
+            }
+            block.xs[block.count] = leftX + i * step;
+            block.ys[block.count] = values[i];
+            block.count++;
+        }
+        this.pointsCount = values.length;
+    }
+
+    private static int checkPointsCount(int pointsCount) {
+        if (pointsCount < 2) {
+            throw new IllegalArgumentException("Количество точек должно быть не менее двух");
+        }
+        return pointsCount;
+    }
+
+    // Новый пустой блок после block
+    private Block insertBlockAfter(Block block) {
+        Block newBlock = new Block();
+        newBlock.prev = block;
+        newBlock.next = block.next;
+        if (block.next != null) {
+            block.next.prev = newBlock;
+        } else {
+            last = newBlock;
+        }
+        block.next = newBlock;
+
+        // Блоки за новым сдвигаются в оглавлении на одну позицию
+        if (blockCount == blocks.length) {
+            Block[] newBlocks = new Block[blockCount * 2];
+            System.arraycopy(blocks, 0, newBlocks, 0, blockCount);
+            blocks = newBlocks;
+            starts = new int[blockCount * 2];
+            startsValid = 0;
+        }
+        int slot = block.slot + 1;
+        System.arraycopy(blocks, slot, blocks, slot + 1, blockCount - slot);
+        blocks[slot] = newBlock;
+        blockCount++;
+        for (int k = slot; k < blockCount; k++) {
+            blocks[k].slot = k;
+        }
+        blockChanged(block);
+        return newBlock;
+    }
+
+    // Исключение блока из списка
+    private void unlinkBlock(Block block) {
+        if (block.prev != null) {
+            block.prev.next = block.next;
+        } else {
+            first = block.next;
+        }
+        if (block.next != null) {
+            block.next.prev = block.prev;
+        } else {
+            last = block.prev;
+        }
+
+        int slot = block.slot;
+        System.arraycopy(blocks, slot + 1, blocks, slot, blockCount - 1 - slot);
+        blockCount--;
+        blocks[blockCount] = null;
+        for (int k = slot; k < blockCount; k++) {
+            blocks[k].slot = k;
+        }
+        startsValid = Math.min(startsValid, slot);
+    }
+
+    // Количество точек в блоке изменилось: номера первых точек следующих блоков устарели
+    private void blockChanged(Block block) {
+        startsValid = Math.min(startsValid, block.slot + 1);
+    }
+
+    // Блок, содержащий точку с номером index; номер первой точки блока запоминается в кэше.
+    // Поиск идёт от ближайшего из известных мест: начала, конца или последнего найденного блока
+    private BlockCache locate(int index) {
+        if (index < 0 || index >= pointsCount) {
+            throw new FunctionPointIndexOutOfBoundsException("Некорректный индекс точки: " + index);
+        }
+        BlockCache cache = lastAccessed;
+        if (index >= cache.start && index < cache.start + cache.block.count) {
+            return cache;
+        }
+
+        // Номера первых точек досчитываются до блока, содержащего index
+        if (startsValid == 0) {
+            starts[0] = 0;
+            startsValid = 1;
+        }
+        while (startsValid < blockCount) {
+            Block previous = blocks[startsValid - 1];
+            int previousEnd = starts[startsValid - 1] + previous.count;
+            if (index < previousEnd) {
+                break;
+            }
+            starts[startsValid++] = previousEnd;
+        }
+
+        // Последний блок с номером первой точки не больше index
+        int low = 0;
+        int high = startsValid - 1;
+        while (low < high) {
+            int middle = (low + high + 1) >>> 1;
+            if (starts[middle] <= index) {
+                low = middle;
+            } else {
+                high = middle - 1;
+            }
+        }
+
+        cache = new BlockCache(blocks[low], starts[low]);
+        lastAccessed = cache;
+        return cache;
+    }
+
+    // Блок, в котором лежит или должна лежать точка с абсциссой x: первый блок,
+    // последняя точка которого не меньше x (или последний блок). Пустым может быть
+    // только единственный блок функции без точек
+    private Block findBlock(double x) {
+        int low = 0;
+        int high = blockCount - 1;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            Block block = blocks[middle];
+            if (block.xs[block.count - 1] < x) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return blocks[low];
+    }
+
+    public double getLeftDomainBorder() {
+        if (pointsCount == 0) {
+            return Double.NaN;
+        }
+        return first.xs[0];
+    }
+
+    public double getRightDomainBorder() {
+        if (pointsCount == 0) {
+            return Double.NaN;
+        }
+        return last.xs[last.count - 1];
+    }
+
+    public double getFunctionValue(double x) {
+        // Условие записано так, чтобы аргумент NaN тоже давал NaN
+        if (pointsCount == 0 || !(x >= getLeftDomainBorder() && x <= getRightDomainBorder())) {
+            return Double.NaN;
+        }
+
+        // Правый конец интервала - первая точка с абсциссой не меньше x
+        Block block = findBlock(x);
+        int i = DoubleArrayTabulatedFunction.lowerBound(block.xs, block.count, x);
+        double rightX = block.xs[i];
+        double rightY = block.ys[i];
+        if (Math.abs(x - rightX) < EPSILON) {
+            return rightY;
+        }
+
+        // Левый конец - предыдущая точка (возможно, в предыдущем блоке)
+        double leftX;
+        double leftY;
+        if (i > 0) {
+            leftX = block.xs[i - 1];
+            leftY = block.ys[i - 1];
+        } else {
+            Block prev = block.prev;
+            leftX = prev.xs[prev.count - 1];
+            leftY = prev.ys[prev.count - 1];
+        }
+        if (Math.abs(x - leftX) < EPSILON) {
+            return leftY;
+        }
+        return leftY + (rightY - leftY) * (x - leftX) / (rightX - leftX);
+    }
+
+    public void getFunctionValues(double[] queries, int offset, int length, double[] out) {
+        DoubleArrayTabulatedFunction.checkRange(queries, offset, length, out);
+        int end = offset + length;
+        double leftBorder = getLeftDomainBorder();
+        double rightBorder = getRightDomainBorder();
+        // Для упорядоченных аргументов проход начинается с последней точки перед первым из них;
+        // слияние выбирается, только если между первым и последним аргументом не слишком
+        // много блоков (блоки считаются заполненными целиком)
+        Block block = first;
+        int i = 0;
+        boolean merge = pointsCount >= 2 && length > 0 && DoubleArrayTabulatedFunction.isSorted(queries, offset, end);
+        if (merge) {
+            double firstX = Math.max(queries[offset], leftBorder);
+            block = findBlock(firstX);
+            Block lastBlock = findBlock(Math.min(queries[end - 1], rightBorder));
+            merge = DoubleArrayTabulatedFunction.isMergeCheaper(
+                    (lastBlock.slot - block.slot + 1) * BLOCK_CAPACITY, length, pointsCount);
+            i = DoubleArrayTabulatedFunction.lowerBound(block.xs, block.count, firstX) - 1;
+            if (i < 0 && block.prev != null) {
+                block = block.prev;
+                i = block.count - 1;
+            } else if (i < 0) {
+                i = 0;
+            }
+        }
+        if (!merge) {
+            // Поиск интервала для каждого аргумента отдельно
+            for (int q = offset; q < end; q++) {
+                out[q] = getFunctionValue(queries[q]);
+            }
+            return;
+        }
+
+        // Один проход по блокам слиянием.
+        // (leftX, leftY) - последняя пройденная точка, block.xs[i] - следующая
+        double leftX = Double.NaN;
+        double leftY = Double.NaN;
+        for (int q = offset; q < end; q++) {
+            double x = queries[q];
+            if (pointsCount == 0 || x < leftBorder || x > rightBorder) {
+                out[q] = Double.NaN;
+                continue;
+            }
+            while (block.xs[i] < x && Math.abs(x - block.xs[i]) >= EPSILON) {
+                leftX = block.xs[i];
+                leftY = block.ys[i];
+                if (++i == block.count) {
+                    block = block.next;
+                    i = 0;
+                }
+            }
+            double rightX = block.xs[i];
+            if (Math.abs(x - rightX) < EPSILON) {
+                out[q] = block.ys[i];
+            } else if (Math.abs(x - leftX) < EPSILON) {
+                out[q] = leftY;
+            } else {
+                out[q] = leftY + (block.ys[i] - leftY) * (x - leftX) / (rightX - leftX);
+            }
+        }
+    }
+
+    // Обход точек по блокам, без поиска блока для каждого номера
+    public void forEachPoint(PointVisitor visitor) {
+        for (Block block = first; block != null; block = block.next) {
+            for (int i = 0; i < block.count; i++) {
+                visitor.visit(block.xs[i], block.ys[i]);
+            }
+        }
+    }
+
+    public void copyXs(double[] out) {
+        if (out.length < pointsCount) {
+            throw new IllegalArgumentException("Массив короче количества точек");
+        }
+        int position = 0;
+        for (Block block = first; block != null; block = block.next) {
+            System.arraycopy(block.xs, 0, out, position, block.count);
+            position += block.count;
+        }
+    }
+
+    public void copyYs(double[] out) {
+        if (out.length < pointsCount) {
+            throw new IllegalArgumentException("Массив короче количества точек");
+        }
+        int position = 0;
+        for (Block block = first; block != null; block = block.next) {
+            System.arraycopy(block.ys, 0, out, position, block.count);
+            position += block.count;
+        }
+    }
+
+    public PointCursor pointCursor() {
+        return new BlockPointCursor();
+    }
+
+    // Курсор обхода точек по блокам
+    private class BlockPointCursor implements PointCursor {
+        // Текущий блок и позиция в нём (block == null - перед первой точкой или после последней)
+        private Block block;
+        private int position;
+        private int index = -1;
+        private int expectedModCount = modCount;
+
+        public boolean next() {
+            // Вставка или удаление точек во время обхода делает позицию курсора недействительной
+            if (expectedModCount != modCount) {
+                throw new IllegalStateException("Точки функции изменились во время обхода");
+            }
+            if (index + 1 >= pointsCount) {
+                block = null;
+                index = pointsCount;
+                return false;
+            }
+            if (block == null) {
+                block = first;
+                position = 0;
+            } else if (++position == block.count) {
+                block = block.next;
+                position = 0;
+            }
+            index++;
+            return true;
+        }
+
+        private void checkPosition() {
+            if (block == null) {
+                throw new FunctionPointIndexOutOfBoundsException("Некорректный индекс точки: " + index);
+            }
+        }
+
+        public double getX() {
+            checkPosition();
+            return block.xs[position];
+        }
+
+        public double getY() {
+            checkPosition();
+            return block.ys[position];
+        }
+
+        public int getIndex() {
+            return index;
+        }
+
+        public void reset() {
+            block = null;
+            index = -1;
+            expectedModCount = modCount;
+        }
+    }
+
+    // Разделяемые итераторы обходят блоки по ссылкам next, как forEachPoint и copyXs.
+    // Поиск по номеру (locate) дополняет оглавление и кэш последнего блока, поэтому
+    // итераторы его не используют: параллельный обход ничего не записывает в функцию
+    public Spliterator<FunctionPoint> pointSpliterator() {
+        return new PointSpliterator(new BlockPointRange(first, 0, 0, pointsCount, modCount));
+    }
+
+    public Spliterator<FunctionSegment> segmentSpliterator() {
+        return new SegmentSpliterator(new BlockPointRange(first, 0, 0, pointsCount, modCount));
+    }
+
+    public Spliterator.OfDouble xSpliterator() {
+        return new CoordinateSpliterator(new BlockPointRange(first, 0, 0, pointsCount, modCount), false);
+    }
+
+    public Spliterator.OfDouble ySpliterator() {
+        return new CoordinateSpliterator(new BlockPointRange(first, 0, 0, pointsCount, modCount), true);
+    }
+
+    // Диапазон точек: текущий блок и позиция в нём. Блок середины при делении находится
+    // проходом по блокам диапазона (по 64 точки за шаг), только чтением
+    private class BlockPointRange extends PointRange {
+        private Block block;
+        private int position;
+        private final int expectedModCount;
+
+        BlockPointRange(Block block, int position, int index, int fence, int expectedModCount) {
+            super(index, fence);
+            this.block = block;
+            this.position = position;
+            this.expectedModCount = expectedModCount;
+        }
+
+        double x() {
+            return block.xs[position];
+        }
+
+        double y() {
+            return block.ys[position];
+        }
+
+        void advance() {
+            index++;
+            if (++position == block.count && block.next != null) {
+                block = block.next;
+                position = 0;
+            }
+        }
+
+        PointRange split(int middle, int prefixFence) {
+            checkForComodification();
+            PointRange prefix = new BlockPointRange(block, position, index, prefixFence, expectedModCount);
+            int offset = position + (middle - index);
+            while (offset >= block.count) {
+                offset -= block.count;
+                block = block.next;
+            }
+            position = offset;
+            index = middle;
+            return prefix;
+        }
+
+        void checkForComodification() {
+            if (expectedModCount != modCount) {
+                throw new IllegalStateException("Точки функции изменились во время обхода");
+            }
+        }
+    }
+
+    public int getPointsCount() {
+        return pointsCount;
+    }
+
+    // Проверка упорядоченности точек при изменении абсциссы точки i блока block.
+    // Соседние точки берутся из того же блока или из соседних, без повторного поиска
+    private static void checkX(Block block, int i, double x) throws InappropriateFunctionPointException {
+        Block prev = block.prev;
+        if (i > 0 ? x <= block.xs[i - 1] : prev != null && x <= prev.xs[prev.count - 1]) {
+            throw new InappropriateFunctionPointException("X координата должна быть больше предыдущей");
+        }
+        Block next = block.next;
+        if (i < block.count - 1 ? x >= block.xs[i + 1] : next != null && x >= next.xs[0]) {
+            throw new InappropriateFunctionPointException("X координата должна быть меньше следующей");
+        }
+    }
+
+    public FunctionPoint getPoint(int index) {
+        BlockCache cache = locate(index);
+        int i = index - cache.start;
+        return new FunctionPoint(cache.block.xs[i], cache.block.ys[i]);
+    }
+
+    public void setPoint(int index, FunctionPoint point) throws InappropriateFunctionPointException {
+        BlockCache cache = locate(index);
+        int i = index - cache.start;
+        checkX(cache.block, i, point.getX());
+        cache.block.xs[i] = point.getX();
+        cache.block.ys[i] = point.getY();
+    }
+
+    public double getPointX(int index) {
+        BlockCache cache = locate(index);
+        return cache.block.xs[index - cache.start];
+    }
+
+    public void setPointX(int index, double x) throws InappropriateFunctionPointException {
+        BlockCache cache = locate(index);
+        int i = index - cache.start;
+        checkX(cache.block, i, x);
+        cache.block.xs[i] = x;
+    }
+
+    public double getPointY(int index) {
+        BlockCache cache = locate(index);
+        return cache.block.ys[index - cache.start];
+    }
+
+    public void setPointY(int index, double y) {
+        BlockCache cache = locate(index);
+        cache.block.ys[index - cache.start] = y;
+    }
+
+    public void deletePoint(int index) {
+        BlockCache cache = locate(index);
+
+        // Проверка минимального количества точек
+        if (pointsCount < 3) {
+            throw new IllegalStateException("Невозможно удалить точку: должно остаться минимум 2 точки");
+        }
+
+        Block block = cache.block;
+        int i = index - cache.start;
+        System.arraycopy(block.xs, i + 1, block.xs, i, block.count - 1 - i);
+        System.arraycopy(block.ys, i + 1, block.ys, i, block.count - 1 - i);
+        block.count--;
+        pointsCount--;
+        modCount++;
+        blockChanged(block);
+
+        // Опустевший блок сливается с соседом или забирает у него часть точек
+        int start = cache.start;
+        if (block.count < MIN_BLOCK_FILL) {
+            if (block.next != null) {
+                rebalance(block, block.next);
+            } else if (block.prev != null) {
+                start -= block.prev.count;
+                rebalance(block.prev, block);
+                block = block.prev;
+            }
+        }
+        lastAccessed = new BlockCache(block, start);
+    }
+
+    // Слияние соседних блоков left и right, если точки помещаются в один, иначе их выравнивание
+    private void rebalance(Block left, Block right) {
+        int total = left.count + right.count;
+        if (total <= BLOCK_CAPACITY) {
+            System.arraycopy(right.xs, 0, left.xs, left.count, right.count);
+            System.arraycopy(right.ys, 0, left.ys, left.count, right.count);
+            left.count = total;
+            unlinkBlock(right);
+            return;
+        }
+
+        int leftCount = total / 2;
+        if (left.count < leftCount) {
+            // Часть точек правого блока переходит в конец левого
+            int moved = leftCount - left.count;
+            System.arraycopy(right.xs, 0, left.xs, left.count, moved);
+            System.arraycopy(right.ys, 0, left.ys, left.count, moved);
+            System.arraycopy(right.xs, moved, right.xs, 0, right.count - moved);
+            System.arraycopy(right.ys, moved, right.ys, 0, right.count - moved);
+        } else {
+            // Часть точек левого блока переходит в начало правого
+            int moved = left.count - leftCount;
+            System.arraycopy(right.xs, 0, right.xs, moved, right.count);
+            System.arraycopy(right.ys, 0, right.ys, moved, right.count);
+            System.arraycopy(left.xs, leftCount, right.xs, 0, moved);
+            System.arraycopy(left.ys, leftCount, right.ys, 0, moved);
+        }
+        left.count = leftCount;
+        right.count = total - leftCount;
+        blockChanged(left);
+    }
+
+    // Удаление за один проход всех точек i, для которых keep[i] == false.
+    // Оставшиеся точки переписываются подряд
+    // в блоки с начала списка: запись никогда не обгоняет чтение, поэтому ещё не прочитанные
+    // точки не затираются. Заполненные блоки остаются полными, лишние блоки в конце удаляются
+    public void retainPoints(boolean[] keep) {
+        // Если сохраняются все точки, блоки не трогаем вовсе
+        int retained = DoubleArrayTabulatedFunction.checkKeep(keep, pointsCount);
+        if (retained == pointsCount) {
+            return;
+        }
+
+        Block target = first;
+        int position = 0;
+        int index = 0;
+        for (Block block = first; block != null; block = block.next) {
+            for (int i = 0; i < block.count; i++, index++) {
+                if (!keep[index]) {
+                    continue;
+                }
+                if (position == BLOCK_CAPACITY) {
+                    target = target.next;
+                    position = 0;
+                }
+                target.xs[position] = block.xs[i];
+                target.ys[position] = block.ys[i];
+                position++;
+            }
+        }
+
+        for (Block block = first; block != target; block = block.next) {
+            block.count = BLOCK_CAPACITY;
+        }
+        target.count = position;
+        target.next = null;
+        last = target;
+        if (target.count < MIN_BLOCK_FILL && target.prev != null) {
+            rebalance(target.prev, target);
+        }
+        pointsCount = retained;
+        modCount++;
+
+        // Оглавление строится заново
+        blockCount = 0;
+        for (Block block = first; block != null; block = block.next) {
+            if (blockCount == blocks.length) {
+                Block[] newBlocks = new Block[blockCount * 2];
+                System.arraycopy(blocks, 0, newBlocks, 0, blockCount);
+                blocks = newBlocks;
+                starts = new int[blockCount * 2];
+            }
+            block.slot = blockCount;
+            blocks[blockCount++] = block;
+        }
+        for (int k = blockCount; k < blocks.length && blocks[k] != null; k++) {
+            blocks[k] = null;
+        }
+        startsValid = 0;
+        lastAccessed = new BlockCache(first, 0);
+    }
+
+    public void addPoint(FunctionPoint point) throws InappropriateFunctionPointException {
+        double newX = point.getX();
+        Block block = findBlock(newX);
+        int i = DoubleArrayTabulatedFunction.lowerBound(block.xs, block.count, newX);
+
+        // Проверяем, не существует ли уже точка с таким X (точки упорядочены - достаточно соседей)
+        if ((i < block.count && Math.abs(block.xs[i] - newX) < EPSILON)
+                || (i > 0 && Math.abs(block.xs[i - 1] - newX) < EPSILON)
+                || (i == 0 && block.prev != null && Math.abs(block.prev.xs[block.prev.count - 1] - newX) < EPSILON)) {
+            throw new InappropriateFunctionPointException("Точка с таким X уже существует");
+        }
+
+        // Переполненный блок делится пополам
+        if (block.count == BLOCK_CAPACITY) {
+            Block right = insertBlockAfter(block);
+            int half = BLOCK_CAPACITY / 2;
+            System.arraycopy(block.xs, half, right.xs, 0, BLOCK_CAPACITY - half);
+            System.arraycopy(block.ys, half, right.ys, 0, BLOCK_CAPACITY - half);
+            right.count = BLOCK_CAPACITY - half;
+            block.count = half;
+            if (i > half) {
+                block = right;
+                i -= half;
+            }
+        }
+
+        System.arraycopy(block.xs, i, block.xs, i + 1, block.count - i);
+        System.arraycopy(block.ys, i, block.ys, i + 1, block.count - i);
+        block.xs[i] = newX;
+        block.ys[i] = point.getY();
+        block.count++;
+        pointsCount++;
+        modCount++;
+        blockChanged(block);
+
+        // Номера точек после вставки сдвинулись: кэш начинается заново с первого блока
+        lastAccessed = new BlockCache(first, 0);
+    }
+}
@@ -0,0 +1,53 @@
+package functions;
+
+// Пакетное вычисление значений функции с использованием векторных инструкций (Vector API).
+// Векторное ядро лежит в отдельном каталоге исходников vector/ и подключается по желанию:
+// пакет functions компилируется без него, а ядро загружается по имени, только если оно
+// скомпилировано и модуль jdk.incubator.vector подключён. Иначе вычисление выполняется
+// обычным скалярным методом getFunctionValues.
+//
+// Сборка и запуск с векторным ядром:
+//   javac -d out functions/*.java
+//   javac --add-modules jdk.incubator.vector -cp out -d out vector/functions/*.java
+//   java --add-modules jdk.incubator.vector -cp out ...
+public final class VectorizedEvaluator {
+    private static final BatchInterpolationKernel KERNEL = loadKernel();
+
+    private VectorizedEvaluator() {
+    }
+
+    // Ядро не найдено или модуль не подключён - null
+    private static BatchInterpolationKernel loadKernel() {
+        try {
+            return (BatchInterpolationKernel) Class.forName("functions.VectorInterpolationKernel")
+                    .getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return null;
+        }
+    }
+
+    // Доступен ли векторный путь в текущей JVM
+    public static boolean isAvailable() {
+        return KERNEL != null;
+    }
+
+    // Значения функции для массива аргументов xs (результат в out)
+    public static void getFunctionValues(TabulatedFunction function, double[] xs, double[] out) {
+        getFunctionValues(function, xs, 0, xs.length, out);
+    }
+
+    // Значения функции для аргументов xs[offset .. offset + length) (результат в out[offset .. offset + length))
+    public static void getFunctionValues(TabulatedFunction function, double[] xs, int offset, int length,
+                                         double[] out) {
+        // Векторное ядро работает только с примитивными столбцами точек
+        if (KERNEL != null && function instanceof DoubleArrayTabulatedFunction) {
+            DoubleArrayTabulatedFunction.checkRange(xs, offset, length, out);
+            DoubleArrayTabulatedFunction arrayFunction = (DoubleArrayTabulatedFunction) function;
+            KERNEL.evaluate(arrayFunction.xColumn(), arrayFunction.yColumn(), arrayFunction.getPointsCount(),
+                    xs, offset, length, out);
+            return;
+        }
+
+        function.getFunctionValues(xs, offset, length, out);
+    }
+}
@@ -0,0 +1,114 @@
+package functions;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+// Векторное ядро линейной интерполяции (требует модуль jdk.incubator.vector).
+// Загружается VectorizedEvaluator по имени класса, поэтому компилируется отдельно от пакета.
+// Каждая порция аргументов обрабатывается в два этапа: скалярный поиск интервалов с выборкой
+// их концов в непрерывные буферы, затем интерполяция векторами. Выборка по номерам (gather)
+// остаётся скалярной: на JDK 17 и 21 она не быстрее обычных загрузок
+final class VectorInterpolationKernel implements BatchInterpolationKernel {
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+    // Размер порции аргументов, для которой заранее выбираются концы интервалов
+    private static final int CHUNK_SIZE = 256;
+
+    private static final double EPSILON = 1e-10;
+
+    VectorInterpolationKernel() {
+    }
+
+    public void evaluate(double[] xs, double[] ys, int pointsCount,
+                         double[] queries, int offset, int length, double[] out) {
+        double leftX = xs[0];
+        double rightX = xs[pointsCount - 1];
+        int end = offset + length;
+
+        // Интервалы ищутся так же, как в DoubleArrayTabulatedFunction.valuesAt: упорядоченные
+        // аргументы - проходом от интервала первого из них, остальные - двоичным поиском
+        int walk = 0;
+        boolean merge = length > 0 && DoubleArrayTabulatedFunction.isSorted(queries, offset, end);
+        if (merge) {
+            walk = DoubleArrayTabulatedFunction.findSegmentIndex(xs, pointsCount, Math.max(queries[offset], leftX));
+            int last = DoubleArrayTabulatedFunction.findSegmentIndex(xs, pointsCount,
+                    Math.min(queries[end - 1], rightX));
+            merge = DoubleArrayTabulatedFunction.isMergeCheaper(last - walk, length, pointsCount);
+        }
+
+        // Концы интервалов порции, разложенные подряд для непрерывной загрузки в векторы
+        int bufferSize = Math.min(CHUNK_SIZE, length);
+        double[] leftXs = new double[bufferSize];
+        double[] rightXs = new double[bufferSize];
+        double[] leftYs = new double[bufferSize];
+        double[] rightYs = new double[bufferSize];
+
+        for (int start = offset; start < end; start += CHUNK_SIZE) {
+            int count = Math.min(CHUNK_SIZE, end - start);
+
+            // 1. Скалярный поиск интервалов и выборка их концов
+            for (int k = 0; k < count; k++) {
+                double x = queries[start + k];
+                if (!(x >= leftX && x <= rightX)) {
+                    // Вне области определения: вырожденный интервал со значением NaN
+                    leftXs[k] = 0.0;
+                    rightXs[k] = 1.0;
+                    leftYs[k] = Double.NaN;
+                    rightYs[k] = Double.NaN;
+                    continue;
+                }
+                int i;
+                if (merge) {
+                    while (walk < pointsCount - 2 && x > xs[walk + 1]) {
+                        walk++;
+                    }
+                    i = walk;
+                } else {
+                    i = DoubleArrayTabulatedFunction.findSegmentIndex(xs, pointsCount, x);
+                }
+                leftXs[k] = xs[i];
+                rightXs[k] = xs[i + 1];
+                leftYs[k] = ys[i];
+                rightYs[k] = ys[i + 1];
+            }
+
+            // 2. Векторная интерполяция
+            interpolate(queries, start, count, leftXs, rightXs, leftYs, rightYs, out);
+        }
+    }
+
+    private static void interpolate(double[] queries, int start, int count, double[] leftXs, double[] rightXs,
+                                    double[] leftYs, double[] rightYs, double[] out) {
+        int k = 0;
+        int bound = SPECIES.loopBound(count);
+        for (; k < bound; k += SPECIES.length()) {
+            DoubleVector x = DoubleVector.fromArray(SPECIES, queries, start + k);
+            DoubleVector x1 = DoubleVector.fromArray(SPECIES, leftXs, k);
+            DoubleVector x2 = DoubleVector.fromArray(SPECIES, rightXs, k);
+            DoubleVector y1 = DoubleVector.fromArray(SPECIES, leftYs, k);
+            DoubleVector y2 = DoubleVector.fromArray(SPECIES, rightYs, k);
+
+            DoubleVector dx = x.sub(x1);
+            DoubleVector result = y2.sub(y1).mul(dx).div(x2.sub(x1)).add(y1);
+
+            // Совпадение с узлом - значение в узле, как в getFunctionValue (левый узел важнее)
+            result = result.blend(y2, x.sub(x2).abs().compare(VectorOperators.LT, EPSILON));
+            result = result.blend(y1, dx.abs().compare(VectorOperators.LT, EPSILON));
+
+            result.intoArray(out, start + k);
+        }
+
+        // Хвост порции, не кратный длине вектора
+        for (; k < count; k++) {
+            double x = queries[start + k];
+            if (Math.abs(x - leftXs[k]) < EPSILON) {
+                out[start + k] = leftYs[k];
+            } else if (Math.abs(x - rightXs[k]) < EPSILON) {
+                out[start + k] = rightYs[k];
+            } else {
+                out[start + k] = leftYs[k] + (rightYs[k] - leftYs[k]) * (x - leftXs[k]) / (rightXs[k] - leftXs[k]);
+            }
+        }
+    }
+}